@@ -10,9 +10,20 @@ repositories {
     mavenCentral()
 }
 
+// Benchmarks live in their own source set so JMH never ends up on the application's classpath
+sourceSets {
+    create("jmh") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
 dependencies {
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
 }
 
 java {
@@ -34,6 +45,10 @@ tasks {
         options.compilerArgs.add("--enable-preview")
     }
 
+    named<JavaCompile>("compileJmhJava") {
+        options.compilerArgs.add("--enable-preview")
+    }
+
     application {
         run.get().jvmArgs("--enable-preview")
     }
@@ -50,4 +65,65 @@ tasks {
         jvmArgs("--enable-preview")
         useJUnitPlatform()
     }
+
+    // Runs the benchmarks with the GC profiler attached, so allocation rates are reported alongside timings.
+    // Narrow the run with -Pjmh.include=<regex>, e.g. `gradlew jmh -Pjmh.include=ChargeableDays`
+    // Results are written as JSON to build/reports/jmh/results.json
+    register<JavaExec>("jmh") {
+        group = "benchmark"
+        description = "Runs the JMH benchmarks."
+        classpath = sourceSets["jmh"].runtimeClasspath
+        mainClass = "org.openjdk.jmh.Main"
+        jvmArgs("--enable-preview")
+        val results = layout.buildDirectory.file("reports/jmh/results.json")
+        outputs.file(results)
+        outputs.upToDateWhen { false }
+        doFirst {
+            results.get().asFile.parentFile.mkdirs()
+        }
+        args(
+            (project.findProperty("jmh.include") as String?) ?: ".*",
+            "-prof", "gc",
+            "-rf", "json",
+            "-rff", results.get().asFile.absolutePath
+        )
+    }
+
+    // Compares the last jmh run against a saved baseline and fails if any benchmark got slower than allowed.
+    // `gradlew jmhCheck -Pjmh.baseline=path/to/baseline.json [-Pjmh.tolerance=0.10]`
+    // A baseline is simply a results.json from an earlier run, copied somewhere safe.
+    register("jmhCheck") {
+        group = "benchmark"
+        description = "Fails if the last JMH run regressed against a baseline."
+        doLast {
+            val baselinePath = project.findProperty("jmh.baseline") as String?
+                ?: throw GradleException("Pass the baseline results with -Pjmh.baseline=<path>")
+            val tolerance = (project.findProperty("jmh.tolerance") as String?)?.toDouble() ?: 0.10
+            val current = layout.buildDirectory.file("reports/jmh/results.json").get().asFile
+
+            fun scores(file: File): Map<String, Pair<Double, String>> {
+                @Suppress("UNCHECKED_CAST")
+                val runs = groovy.json.JsonSlurper().parse(file) as List<Map<String, Any?>>
+                return runs.associate { run ->
+                    val params = (run["params"] as Map<*, *>?)?.entries?.joinToString(",") { "${it.key}=${it.value}" }
+                    val metric = run["primaryMetric"] as Map<*, *>
+                    "${run["benchmark"]}(${params ?: ""})" to
+                        Pair((metric["score"] as Number).toDouble(), metric["scoreUnit"] as String)
+                }
+            }
+
+            val baseline = scores(file(baselinePath))
+            val regressions = scores(current).mapNotNull { (name, score) ->
+                val before = baseline[name] ?: return@mapNotNull null
+                // Throughput units ("ops/...") are better when higher, time units ("../op") when lower.
+                val higherIsBetter = score.second.startsWith("ops/")
+                val change = (score.first - before.first) / before.first
+                val worse = if (higherIsBetter) -change else change
+                if (worse > tolerance) "$name: ${before.first} -> ${score.first} ${score.second}" else null
+            }
+            if (regressions.isNotEmpty()) {
+                throw GradleException("Benchmarks regressed beyond ${tolerance * 100}%:\n" + regressions.joinToString("\n"))
+            }
+        }
+    }
 }
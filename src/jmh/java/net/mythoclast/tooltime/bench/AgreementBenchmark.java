@@ -0,0 +1,65 @@
+package net.mythoclast.tooltime.bench;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.ReportWriter;
+import net.mythoclast.tooltime.model.Tools;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures discount computation and report rendering for a priced RentalAgreement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class AgreementBenchmark {
+
+    @Param({"0", "10", "50"})
+    public int discount;
+
+    private Checkout checkout;
+    private RentalAgreement agreement;
+    private final StringBuilder reusable = new StringBuilder(512);
+
+    @Setup
+    public void setUp() {
+        checkout = new Checkout(Tools.JAKR.getTool(), 9, discount, LocalDate.of(2015, Month.JULY, 2));
+        agreement = new RentalAgreement(checkout);
+    }
+
+    /**
+     * Pricing a fresh agreement and reading its discount, which is where the discount math runs
+     */
+    @Benchmark
+    public long discountAmount() {
+        return new RentalAgreement(checkout).getDiscountAmount();
+    }
+
+    @Benchmark
+    public String report() {
+        return agreement.getReport();
+    }
+
+    @Benchmark
+    public StringBuilder reportIntoReusedBuilder() {
+        reusable.setLength(0);
+        return ReportWriter.write(agreement, reusable);
+    }
+}
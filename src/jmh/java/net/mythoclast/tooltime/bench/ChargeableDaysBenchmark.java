@@ -0,0 +1,66 @@
+package net.mythoclast.tooltime.bench;
+
+import net.mythoclast.tooltime.model.ChargeableDays;
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.PriceBreakdown;
+import net.mythoclast.tooltime.model.ToolType;
+import net.mythoclast.tooltime.model.Tools;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures counting chargeable days, and full pricing, across rental lengths from one day to five years.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ChargeableDaysBenchmark {
+
+    @Param({"1", "7", "30", "365", "1826"})
+    public int rentalDays;
+
+    @Param({"LADDER", "CHAINSAW", "JACKHAMMER"})
+    public ToolType toolType;
+
+    private LocalDate from;
+    private LocalDate to;
+    private Checkout checkout;
+
+    @Setup
+    public void setUp() {
+        from = LocalDate.of(2015, Month.JULY, 2);
+        to = from.plusDays(rentalDays - 1);
+        final Tools tools = switch (toolType) {
+            case LADDER -> Tools.LADW;
+            case CHAINSAW -> Tools.CHNS;
+            case JACKHAMMER -> Tools.JAKR;
+        };
+        checkout = new Checkout(tools.getTool(), rentalDays, 10, from);
+    }
+
+    @Benchmark
+    public int chargeableDays() {
+        return ChargeableDays.count(toolType, from, to);
+    }
+
+    @Benchmark
+    public PriceBreakdown priceCheckout() {
+        return PriceBreakdown.of(checkout);
+    }
+}
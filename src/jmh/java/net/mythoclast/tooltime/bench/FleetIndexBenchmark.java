@@ -0,0 +1,78 @@
+package net.mythoclast.tooltime.bench;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.Tool;
+import net.mythoclast.tooltime.model.ToolType;
+import net.mythoclast.tooltime.reservation.AvailabilityEngine;
+import net.mythoclast.tooltime.reservation.FleetIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * Measures searching a fleet of 300,000 jackhammers of one brand, a fifth of them booked on any given day,
+ * for the units free across an eight day span.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class FleetIndexBenchmark {
+
+    private static final int UNITS = 300_000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2015, Month.JULY, 1);
+
+    private FleetIndex index;
+
+    @Setup
+    public void setUp() {
+        final AvailabilityEngine engine = new AvailabilityEngine();
+        index = FleetIndex.attach(engine);
+        final List<Tool> fleet = new ArrayList<>(UNITS);
+        for (int i = 0; i < UNITS; i++) {
+            final Tool tool = new Tool(STR."J\{i}", ToolType.JACKHAMMER, "DeWalt");
+            fleet.add(tool);
+            index.register(tool);
+        }
+        final Random random = new Random(25);
+        for (int i = 0; i < UNITS; i++) {
+            engine.tryReserve(new Checkout(
+                fleet.get(random.nextInt(UNITS)), 1 + random.nextInt(10), 0, FIRST_DAY.plusDays(random.nextInt(30))
+            ));
+        }
+    }
+
+    /**
+     * Counting the free units, without listing them
+     */
+    @Benchmark
+    public int count() {
+        return index.countAvailable(ToolType.JACKHAMMER, "DeWalt", FIRST_DAY.plusDays(2), FIRST_DAY.plusDays(9));
+    }
+
+    /**
+     * Listing the free units
+     */
+    @Benchmark
+    public List<Tool> list() {
+        return index.available(ToolType.JACKHAMMER, "DeWalt", FIRST_DAY.plusDays(2), FIRST_DAY.plusDays(9));
+    }
+}
@@ -0,0 +1,62 @@
+package net.mythoclast.tooltime.bench;
+
+import net.mythoclast.tooltime.model.Holiday;
+import net.mythoclast.tooltime.model.HolidayCalendar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Holiday lookups and the HolidayCalendar queries pricing relies on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class HolidayBenchmark {
+
+    // Not final, so the JIT cannot fold the inputs into constants and time a precomputed answer.
+    private LocalDate from;
+    private LocalDate to;
+    private int year;
+
+    @Setup
+    public void setUp() {
+        from = LocalDate.of(2015, Month.JULY, 2);
+        to = LocalDate.of(2020, Month.JULY, 1);
+        year = 2015;
+    }
+
+    @Benchmark
+    public LocalDate nextObserved() {
+        return Holiday.INDEPENDENCE_DAY.nextObserved(from);
+    }
+
+    @Benchmark
+    public LocalDate forYear() {
+        return Holiday.LABOR_DAY.forYear(year);
+    }
+
+    @Benchmark
+    public boolean isObserved() {
+        return HolidayCalendar.standard().isObserved(from);
+    }
+
+    @Benchmark
+    public int countBetweenFiveYears() {
+        return HolidayCalendar.standard().countBetween(from, to);
+    }
+}
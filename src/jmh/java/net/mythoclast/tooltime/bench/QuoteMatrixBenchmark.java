@@ -0,0 +1,57 @@
+package net.mythoclast.tooltime.bench;
+
+import net.mythoclast.tooltime.model.PriceGrid;
+import net.mythoclast.tooltime.model.QuoteMatrix;
+import net.mythoclast.tooltime.model.ToolType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a one-year quote matrix, and pricing a year of start dates by one to thirty day rentals from it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class QuoteMatrixBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2015, Month.JANUARY, 1);
+    private static final int HORIZON_DAYS = 366 + 30;
+
+    private QuoteMatrix matrix;
+
+    @Setup
+    public void setUp() {
+        matrix = new QuoteMatrix(FIRST_DAY, HORIZON_DAYS);
+    }
+
+    /**
+     * Building the running totals for every ToolType over the horizon
+     */
+    @Benchmark
+    public QuoteMatrix build() {
+        return new QuoteMatrix(FIRST_DAY, HORIZON_DAYS);
+    }
+
+    /**
+     * Pricing 366 start dates by 30 rental lengths from an already-built matrix
+     */
+    @Benchmark
+    public PriceGrid yearGrid() {
+        return matrix.grid(ToolType.JACKHAMMER, FIRST_DAY, 366, 1, 30, 10);
+    }
+}
@@ -0,0 +1,71 @@
+package net.mythoclast.tooltime.bench;
+
+import net.mythoclast.tooltime.model.Tool;
+import net.mythoclast.tooltime.model.ToolCodes;
+import net.mythoclast.tooltime.model.ToolRegistry;
+import net.mythoclast.tooltime.model.ToolType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures Tool construction, registration and lookup, with several threads hitting one registry at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@Threads(4)
+public class ToolRegistryBenchmark {
+
+    private static final int CATALOG_SIZE = 100_000;
+
+    private final ToolRegistry registry = new ToolRegistry(CATALOG_SIZE);
+    private final String[] codes = new String[CATALOG_SIZE];
+    private final long[] keys = new long[CATALOG_SIZE];
+    private final AtomicLong nextCode = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            codes[i] = "T" + i;
+            keys[i] = ToolCodes.pack(codes[i]);
+            registry.register(new Tool(codes[i], ToolType.LADDER, "Werner"));
+        }
+    }
+
+    @Benchmark
+    public Tool construct() {
+        return new Tool("LADW", ToolType.LADDER, "Werner");
+    }
+
+    @Benchmark
+    public boolean register() {
+        // Always a new code, so this measures successful registration rather than rejection.
+        return registry.registerIfAbsent(new Tool("N" + nextCode.incrementAndGet(), ToolType.LADDER, "Werner"));
+    }
+
+    @Benchmark
+    public Tool lookupByCode() {
+        return registry.lookup(codes[ThreadLocalRandom.current().nextInt(CATALOG_SIZE)]).orElse(null);
+    }
+
+    @Benchmark
+    public Tool lookupByPackedKey() {
+        return registry.lookup(keys[ThreadLocalRandom.current().nextInt(CATALOG_SIZE)]);
+    }
+}
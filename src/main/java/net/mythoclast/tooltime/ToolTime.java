@@ -1,16 +1,59 @@
 package net.mythoclast.tooltime;
 
+import net.mythoclast.tooltime.csv.CsvPricingJob;
 import net.mythoclast.tooltime.model.*;
+import net.mythoclast.tooltime.service.QuoteServer;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.Month;
 
+import static java.lang.StringTemplate.STR;
+
 /**
- * This class simply creates and prints the "report form" of each scenario tested in the JUnits.
- * Pay no mind.
+ * With no arguments, this class simply creates and prints the "report form" of each scenario tested in the JUnits.
+ * <br>
+ * With {@code price <checkouts.csv> <priced.csv> [rejects.csv]}, it prices a CSV file of Checkouts instead.
+ * With {@code serve [port]}, it serves quotes over HTTP until stopped.
  */
 public final class ToolTime {
-    public static void main() {
+
+    private static final int DEFAULT_PORT = 8080;
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length >= 3 && args.length <= 4 && args[0].equals("price")) {
+            price(args);
+            return;
+        }
+        if (args.length >= 1 && args.length <= 2 && args[0].equals("serve")) {
+            serve(args);
+            return;
+        }
+        if (args.length > 0) {
+            System.err.println("Usage: ToolTime [price <checkouts.csv> <priced.csv> [rejects.csv] | serve [port]]");
+            System.exit(2);
+        }
+        printScenarios();
+    }
+
+    private static void price(final String[] args) throws IOException {
+        final Path output = Path.of(args[2]);
+        final Path rejects = args.length == 4 ? Path.of(args[3]) : Path.of(STR."\{args[2]}.rejects.csv");
+        final CsvPricingJob.Summary summary = new CsvPricingJob(ToolRegistry.defaultRegistry())
+            .run(Path.of(args[1]), output, rejects);
+        System.out.println(STR."Priced \{summary.priced()} checkouts into \{output}, rejected \{summary.rejected()} into \{rejects}.");
+    }
+
+    private static void serve(final String[] args) throws IOException {
+        final int port = args.length == 2 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+        final QuoteServer server = QuoteServer.start(new InetSocketAddress(port), ToolRegistry.defaultRegistry());
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println(STR."Serving quotes on port \{server.address().getPort()}.");
+    }
+
+    private static void printScenarios() {
         // This commented-out call always throws
         /*
         System.out.println(new RentalAgreement(
@@ -0,0 +1,256 @@
+package net.mythoclast.tooltime.analytics;
+
+import net.mythoclast.tooltime.journal.AgreementJournal;
+import net.mythoclast.tooltime.journal.JournalEntry;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.Tool;
+import net.mythoclast.tooltime.model.ToolRegistry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * Priced agreements laid out column by column in primitive arrays, for rollups that scan millions of rows.
+ * <br>
+ * Each row keeps only what rollups group and sum by: ToolType, brand, checkout month, chargeable days and the three
+ * amounts. Brands are stored as indexes into a dictionary, and months as a count of months since year 0, so grouping
+ * a row is integer arithmetic. Columns are immutable once built, and safe to scan from any number of threads.
+ */
+public final class AgreementColumns {
+
+    private final int rows;
+    private final byte[] toolTypes;
+    private final int[] brands;
+    private final int[] months;
+    private final int[] chargeableDays;
+    private final long[] preDiscountCents;
+    private final long[] discountCents;
+    private final long[] finalCents;
+    private final String[] brandNames;
+    private final int firstMonth;
+    private final int lastMonth;
+
+    private AgreementColumns(final Builder builder) {
+        rows = builder.rows;
+        toolTypes = Arrays.copyOf(builder.toolTypes, rows);
+        brands = Arrays.copyOf(builder.brands, rows);
+        months = Arrays.copyOf(builder.months, rows);
+        chargeableDays = Arrays.copyOf(builder.chargeableDays, rows);
+        preDiscountCents = Arrays.copyOf(builder.preDiscountCents, rows);
+        discountCents = Arrays.copyOf(builder.discountCents, rows);
+        finalCents = Arrays.copyOf(builder.finalCents, rows);
+        brandNames = builder.brandNames.toArray(String[]::new);
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (int i = 0; i < rows; i++) {
+            first = Math.min(first, months[i]);
+            last = Math.max(last, months[i]);
+        }
+        firstMonth = rows == 0 ? 0 : first;
+        lastMonth = rows == 0 ? 0 : last;
+    }
+
+    /**
+     * Starts building columns
+     * @return An empty builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Loads every intact record of a journal, without rebuilding any RentalAgreement
+     * @param journal The journal file to read
+     * @param registry Where to find each recorded Tool by its code
+     * @return The recorded agreements, in journal order
+     * @throws IOException If the journal cannot be read
+     * @throws IllegalArgumentException If a recorded Tool is not in the registry
+     */
+    public static AgreementColumns fromJournal(final Path journal, final ToolRegistry registry) throws IOException {
+        final Builder builder = builder();
+        AgreementJournal.replay(journal, entry -> builder.add(entry, registry));
+        return builder.build();
+    }
+
+    /**
+     * Returns how many agreements these columns hold
+     * @return How many agreements these columns hold
+     */
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * Adds up every measure for each group of agreements, scanning in parallel
+     * @param dimensions What to group by. None adds up every agreement into one group.
+     * @return The totals of each group holding at least one agreement
+     */
+    public Rollup rollup(final Dimension... dimensions) {
+        return Rollup.of(this, dimensions);
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    byte[] toolTypes() {
+        return toolTypes;
+    }
+
+    int[] brands() {
+        return brands;
+    }
+
+    int[] months() {
+        return months;
+    }
+
+    int[] chargeableDays() {
+        return chargeableDays;
+    }
+
+    long[] preDiscountCents() {
+        return preDiscountCents;
+    }
+
+    long[] discountCents() {
+        return discountCents;
+    }
+
+    long[] finalCents() {
+        return finalCents;
+    }
+
+    String brandName(final int brand) {
+        return brandNames[brand];
+    }
+
+    int brandCount() {
+        return brandNames.length;
+    }
+
+    int firstMonth() {
+        return firstMonth;
+    }
+
+    int monthCount() {
+        return rows == 0 ? 0 : lastMonth - firstMonth + 1;
+    }
+
+    static int monthIndex(final LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    static YearMonth monthOf(final int monthIndex) {
+        return YearMonth.of(Math.floorDiv(monthIndex, 12), Math.floorMod(monthIndex, 12) + 1);
+    }
+
+    /**
+     * Gathers agreements into growable columns. Not safe to share between threads.
+     */
+    public static final class Builder {
+        private int rows;
+        private byte[] toolTypes = new byte[1024];
+        private int[] brands = new int[1024];
+        private int[] months = new int[1024];
+        private int[] chargeableDays = new int[1024];
+        private long[] preDiscountCents = new long[1024];
+        private long[] discountCents = new long[1024];
+        private long[] finalCents = new long[1024];
+        private final List<String> brandNames = new ArrayList<>();
+        private final Map<String, Integer> brandIndex = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds one priced agreement
+         * @param agreement The agreement to add
+         * @return This builder
+         */
+        public Builder add(final RentalAgreement agreement) {
+            return add(
+                agreement.checkout().tool(),
+                agreement.getCheckoutDate(),
+                agreement.getChargeableDays(),
+                agreement.getPreDiscountCharge(),
+                agreement.getDiscountAmount(),
+                agreement.getFinalCharge()
+            );
+        }
+
+        /**
+         * Adds one journaled agreement
+         * @param entry The journal entry to add
+         * @param registry Where to find the recorded Tool by its code
+         * @return This builder
+         * @throws IllegalArgumentException If the recorded Tool is not in the registry
+         */
+        public Builder add(final JournalEntry entry, final ToolRegistry registry) {
+            final Tool tool = registry.lookup(entry.toolCode()).orElseThrow(
+                () -> new IllegalArgumentException(STR."Journaled tool code `\{entry.toolCode()}` is not registered.")
+            );
+            return add(
+                tool,
+                LocalDate.ofEpochDay(entry.checkoutEpochDay()),
+                entry.chargeableDays(),
+                entry.preDiscountCents(),
+                entry.discountCents(),
+                entry.finalCents()
+            );
+        }
+
+        /**
+         * Freezes the gathered agreements into columns
+         * @return The gathered agreements, in the order they were added
+         */
+        public AgreementColumns build() {
+            return new AgreementColumns(this);
+        }
+
+        private Builder add(
+            final Tool tool,
+            final LocalDate checkoutDate,
+            final int days,
+            final long pre,
+            final long discount,
+            final long charged
+        ) {
+            if (rows == toolTypes.length) {
+                grow();
+            }
+            toolTypes[rows] = (byte) tool.type().ordinal();
+            brands[rows] = brandIndex.computeIfAbsent(tool.brand(), brand -> {
+                brandNames.add(brand);
+                return brandNames.size() - 1;
+            });
+            months[rows] = monthIndex(checkoutDate);
+            chargeableDays[rows] = days;
+            preDiscountCents[rows] = pre;
+            discountCents[rows] = discount;
+            finalCents[rows] = charged;
+            rows++;
+            return this;
+        }
+
+        private void grow() {
+            final int capacity = Math.multiplyExact(toolTypes.length, 2);
+            toolTypes = Arrays.copyOf(toolTypes, capacity);
+            brands = Arrays.copyOf(brands, capacity);
+            months = Arrays.copyOf(months, capacity);
+            chargeableDays = Arrays.copyOf(chargeableDays, capacity);
+            preDiscountCents = Arrays.copyOf(preDiscountCents, capacity);
+            discountCents = Arrays.copyOf(discountCents, capacity);
+            finalCents = Arrays.copyOf(finalCents, capacity);
+        }
+    }
+}
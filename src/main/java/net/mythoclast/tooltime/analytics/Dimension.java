@@ -0,0 +1,19 @@
+package net.mythoclast.tooltime.analytics;
+
+/**
+ * What a Rollup can group agreements by.
+ */
+public enum Dimension {
+    /**
+     * The ToolType rented
+     */
+    TOOL_TYPE,
+    /**
+     * The brand of the Tool rented
+     */
+    BRAND,
+    /**
+     * The year and month the Tool was checked out in
+     */
+    MONTH
+}
@@ -0,0 +1,175 @@
+package net.mythoclast.tooltime.analytics;
+
+import net.mythoclast.tooltime.model.ToolType;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * Totals of agreements grouped by some combination of Dimensions, as produced by
+ * {@link AgreementColumns#rollup(Dimension...)}.
+ * <br>
+ * Groups are numbered densely, mixing the ToolType ordinal, brand index and month index of a row by fixed strides,
+ * so a scan accumulates into one flat long array with no hashing. Rows are split into slices scanned in parallel.
+ * Each parallel task scans all its slices into one array of its own, and the tasks' arrays are added together as
+ * they finish, so the arrays allocated follow the number of tasks rather than slices. Nothing is allocated per row.
+ */
+public final class Rollup {
+
+    /**
+     * The totals of one group.
+     *
+     * @param toolType The ToolType of the group, or null if not grouped by ToolType
+     * @param brand The brand of the group, or null if not grouped by brand
+     * @param month The checkout month of the group, or null if not grouped by month
+     * @param agreements How many agreements are in the group
+     * @param chargeableDays The total chargeable days of the group
+     * @param preDiscountCents The total charge before discount of the group, in cents
+     * @param discountCents The total discount given in the group, in cents
+     * @param finalCents The total final charge of the group, in cents
+     */
+    public record Row(
+        ToolType toolType,
+        String brand,
+        YearMonth month,
+        long agreements,
+        long chargeableDays,
+        long preDiscountCents,
+        long discountCents,
+        long finalCents
+    ) {
+    }
+
+    // Enough rows per slice that splitting costs nothing next to scanning, few enough that every core gets work.
+    private static final int SLICE_ROWS = 1 << 16;
+    private static final int MAX_GROUPS = 1 << 22;
+    private static final int MEASURES = 5;
+    private static final int AGREEMENTS = 0;
+    private static final int CHARGEABLE_DAYS = 1;
+    private static final int PRE_DISCOUNT = 2;
+    private static final int DISCOUNT = 3;
+    private static final int FINAL = 4;
+
+    private final Set<Dimension> dimensions;
+    private final List<Row> rows;
+
+    private Rollup(final Set<Dimension> dimensions, final List<Row> rows) {
+        this.dimensions = dimensions;
+        this.rows = rows;
+    }
+
+    /**
+     * Returns what this rollup groups by
+     * @return What this rollup groups by
+     */
+    public Set<Dimension> getDimensions() {
+        return EnumSet.copyOf(dimensions);
+    }
+
+    /**
+     * Returns the totals of every group holding at least one agreement, ordered by ToolType, then brand in order of
+     * first appearance, then month
+     * @return The totals of every non-empty group
+     */
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    static Rollup of(final AgreementColumns columns, final Dimension... grouping) {
+        final Set<Dimension> dimensions = EnumSet.noneOf(Dimension.class);
+        for (final Dimension dimension : grouping) {
+            if (null == dimension) {
+                throw new IllegalArgumentException("A rollup may not group by a null dimension.");
+            }
+            dimensions.add(dimension);
+        }
+        final int types = dimensions.contains(Dimension.TOOL_TYPE) ? ToolType.values().length : 1;
+        final int brands = dimensions.contains(Dimension.BRAND) ? Math.max(1, columns.brandCount()) : 1;
+        final int months = dimensions.contains(Dimension.MONTH) ? Math.max(1, columns.monthCount()) : 1;
+        final long groups = (long) types * brands * months;
+        if (groups > MAX_GROUPS) {
+            throw new IllegalArgumentException(STR."A rollup of \{groups} groups is too large; group by less.");
+        }
+        // Group = type * brands * months + brand * months + month, with ungrouped dimensions contributing 0.
+        final int typeStride = dimensions.contains(Dimension.TOOL_TYPE) ? brands * months : 0;
+        final int brandStride = dimensions.contains(Dimension.BRAND) ? months : 0;
+        final int monthStride = dimensions.contains(Dimension.MONTH) ? 1 : 0;
+        final int monthBase = columns.firstMonth();
+
+        final int slices = (columns.rows() + SLICE_ROWS - 1) / SLICE_ROWS;
+        final long[] totals = IntStream.range(0, slices).parallel()
+            .collect(
+                () -> new long[(int) groups * MEASURES],
+                (into, slice) -> scan(
+                    columns,
+                    slice * SLICE_ROWS,
+                    Math.min(columns.rows(), (slice + 1) * SLICE_ROWS),
+                    into,
+                    typeStride,
+                    brandStride,
+                    monthStride,
+                    monthBase
+                ),
+                Rollup::add
+            );
+
+        final List<Row> rows = new ArrayList<>();
+        for (int group = 0; group < groups; group++) {
+            final int at = group * MEASURES;
+            if (totals[at + AGREEMENTS] == 0) {
+                continue;
+            }
+            rows.add(new Row(
+                typeStride == 0 ? null : ToolType.values()[group / typeStride],
+                brandStride == 0 ? null : columns.brandName(group / brandStride % brands),
+                monthStride == 0 ? null : AgreementColumns.monthOf(monthBase + group % months),
+                totals[at + AGREEMENTS],
+                totals[at + CHARGEABLE_DAYS],
+                totals[at + PRE_DISCOUNT],
+                totals[at + DISCOUNT],
+                totals[at + FINAL]
+            ));
+        }
+        return new Rollup(dimensions, List.copyOf(rows));
+    }
+
+    // Adds the totals of the given rows into the given array.
+    private static void scan(
+        final AgreementColumns columns,
+        final int from,
+        final int to,
+        final long[] totals,
+        final int typeStride,
+        final int brandStride,
+        final int monthStride,
+        final int monthBase
+    ) {
+        final byte[] types = columns.toolTypes();
+        final int[] brands = columns.brands();
+        final int[] months = columns.months();
+        final int[] days = columns.chargeableDays();
+        final long[] pre = columns.preDiscountCents();
+        final long[] discount = columns.discountCents();
+        final long[] charged = columns.finalCents();
+        for (int i = from; i < to; i++) {
+            final int at = MEASURES * (types[i] * typeStride + brands[i] * brandStride + (months[i] - monthBase) * monthStride);
+            totals[at + AGREEMENTS]++;
+            totals[at + CHARGEABLE_DAYS] += days[i];
+            totals[at + PRE_DISCOUNT] += pre[i];
+            totals[at + DISCOUNT] += discount[i];
+            totals[at + FINAL] += charged[i];
+        }
+    }
+
+    private static void add(final long[] into, final long[] from) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] += from[i];
+        }
+    }
+}
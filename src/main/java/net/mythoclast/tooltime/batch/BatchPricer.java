@@ -0,0 +1,153 @@
+package net.mythoclast.tooltime.batch;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.RentalAgreement;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+/**
+ * Prices large batches of Checkouts across all available cores.
+ * Results are always returned in the same order as the Checkouts they came from,
+ * and a Checkout that fails to price is reported in place rather than aborting the batch.
+ */
+public final class BatchPricer {
+
+    /**
+     * Controls how much work is done for each Checkout in a batch.
+     */
+    public enum Mode {
+        /**
+         * Prices each Checkout and renders its report.
+         */
+        FULL,
+
+        /**
+         * Prices each Checkout but skips rendering reports.
+         */
+        THROUGHPUT
+    }
+
+    // Below this many Checkouts, a task prices its slice directly instead of splitting further.
+    private static final int SPLIT_THRESHOLD = 1024;
+
+    private final ForkJoinPool pool;
+    private final Mode mode;
+
+    /**
+     * Creates a BatchPricer running on the given pool
+     * @param pool The ForkJoinPool to price on. May not be null.
+     * @param mode How much work to do for each Checkout. May not be null.
+     */
+    public BatchPricer(final ForkJoinPool pool, final Mode mode) {
+        if (null == pool) {
+            throw new IllegalArgumentException("A batch pricer may not use a null pool.");
+        }
+        if (null == mode) {
+            throw new IllegalArgumentException("A batch pricer may not use a null mode.");
+        }
+        this.pool = pool;
+        this.mode = mode;
+    }
+
+    /**
+     * Creates a BatchPricer running on the common ForkJoinPool
+     * @param mode How much work to do for each Checkout. May not be null.
+     */
+    public BatchPricer(final Mode mode) {
+        this(ForkJoinPool.commonPool(), mode);
+    }
+
+    /**
+     * Prices every Checkout in the given List
+     * @param checkouts The Checkouts to price
+     * @return One result per Checkout, in the same order
+     */
+    public List<PricingResult> price(final List<Checkout> checkouts) {
+        return price(checkouts.toArray(Checkout[]::new));
+    }
+
+    /**
+     * Prices every Checkout in the given Stream. The Stream is drained before pricing begins.
+     * @param checkouts The Checkouts to price
+     * @return One result per Checkout, in encounter order
+     */
+    public List<PricingResult> price(final Stream<Checkout> checkouts) {
+        return price(checkouts.toArray(Checkout[]::new));
+    }
+
+    /**
+     * Prices every Checkout in the given array
+     * @param checkouts The Checkouts to price
+     * @return One result per Checkout, in the same order
+     */
+    public List<PricingResult> price(final Checkout[] checkouts) {
+        final PricingResult[] results = new PricingResult[checkouts.length];
+        if (checkouts.length > 0) {
+            pool.invoke(new PriceSlice(checkouts, results, 0, checkouts.length, mode));
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Prices a single Checkout, capturing any failure as a result instead of throwing it
+     * @param index The position of the Checkout within its batch
+     * @param checkout The Checkout to price
+     * @param mode How much work to do for the Checkout
+     * @return The outcome of pricing the Checkout
+     */
+    static PricingResult priceOne(final int index, final Checkout checkout, final Mode mode) {
+        try {
+            if (null == checkout) {
+                throw new IllegalArgumentException("A batch may not include a null Checkout.");
+            }
+            final RentalAgreement agreement = RentalAgreement.promoted(checkout);
+            return new PricingResult.Priced(index, agreement, mode == Mode.FULL ? agreement.getReport() : null);
+        } catch (final RuntimeException e) {
+            return new PricingResult.Failed(index, checkout, e);
+        }
+    }
+
+    /**
+     * Prices one contiguous slice of a batch, splitting in half until slices are small enough to do directly.
+     * Each slice writes only its own indices of the shared results array, so no synchronization is needed.
+     */
+    private static final class PriceSlice extends RecursiveAction {
+        private final Checkout[] checkouts;
+        private final PricingResult[] results;
+        private final int from;
+        private final int to;
+        private final Mode mode;
+
+        private PriceSlice(
+                final Checkout[] checkouts,
+                final PricingResult[] results,
+                final int from,
+                final int to,
+                final Mode mode
+        ) {
+            this.checkouts = checkouts;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.mode = mode;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = priceOne(i, checkouts[i], mode);
+                }
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(
+                new PriceSlice(checkouts, results, from, middle, mode),
+                new PriceSlice(checkouts, results, middle, to, mode)
+            );
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package net.mythoclast.tooltime.batch;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.RentalAgreement;
+
+/**
+ * The outcome of pricing one Checkout within a batch.
+ */
+public sealed interface PricingResult {
+
+    /**
+     * Returns the position of the priced Checkout within its batch
+     * @return The position of the priced Checkout within its batch
+     */
+    int index();
+
+    /**
+     * A Checkout which was priced successfully.
+     *
+     * @param index The position of the Checkout within its batch
+     * @param agreement The resulting RentalAgreement
+     * @param report The report form of the agreement, or null if the batch was priced in throughput mode
+     */
+    record Priced(int index, RentalAgreement agreement, String report) implements PricingResult {
+    }
+
+    /**
+     * A Checkout which could not be priced.
+     *
+     * @param index The position of the Checkout within its batch
+     * @param checkout The offending Checkout. May be null, if that is what the batch contained.
+     * @param error Why the Checkout could not be priced
+     */
+    record Failed(int index, Checkout checkout, RuntimeException error) implements PricingResult {
+    }
+}
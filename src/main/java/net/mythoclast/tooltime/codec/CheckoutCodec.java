@@ -0,0 +1,183 @@
+package net.mythoclast.tooltime.codec;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.PriceBreakdown;
+import net.mythoclast.tooltime.model.RegionCalendars;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.Tool;
+import net.mythoclast.tooltime.model.ToolCodes;
+import net.mythoclast.tooltime.model.ToolRegistry;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * Encodes Checkouts and RentalAgreements in a compact binary form, and decodes them again.
+ * <br>
+ * A Checkout is a run of varints, usually 8 to 12 bytes in all:
+ * <ol>
+ *     <li>the packed tool code from ToolCodes, or 0 followed by the code's length and UTF-8 bytes if it does not pack</li>
+ *     <li>the checkout epoch day, zig-zag encoded</li>
+ *     <li>rental days</li>
+ *     <li>discount percent</li>
+ *     <li>the region's length and UTF-8 bytes, a length of 0 meaning the default region</li>
+ * </ol>
+ * A RentalAgreement is its Checkout followed by chargeable days and promotion percent, then the daily, pre-discount, discount and final
+ * amounts in cents, zig-zag encoded. The due date is not sent, as it follows from the checkout.
+ * <br>
+ * Encoding writes at the buffer's position and advances it; decoding reads from the position and advances it.
+ * To read fields without building records at all, see CheckoutView.
+ */
+public final class CheckoutCodec {
+
+    private CheckoutCodec() {
+    }
+
+    /**
+     * Encodes a Checkout
+     * @param checkout The Checkout to encode
+     * @param out Where to write it
+     * @throws java.nio.BufferOverflowException If it does not fit
+     */
+    public static void encode(final Checkout checkout, final ByteBuffer out) {
+        final String code = checkout.tool().code();
+        final long key = ToolCodes.pack(code);
+        Varints.write(key, out);
+        if (key == ToolCodes.UNPACKABLE) {
+            writeString(code, out);
+        }
+        Varints.write(Varints.zigZag(checkout.checkoutDate().toEpochDay()), out);
+        Varints.write(checkout.rentalDays(), out);
+        Varints.write(checkout.discount(), out);
+        writeString(checkout.region().equals(RegionCalendars.DEFAULT_REGION) ? "" : checkout.region(), out);
+    }
+
+    /**
+     * Decodes a Checkout
+     * @param in Where to read it from
+     * @param registry Where to find its Tool by code
+     * @return The decoded Checkout
+     * @throws IllegalArgumentException If the encoding is malformed, names an unknown Tool, or is not a valid Checkout
+     * @throws java.nio.BufferUnderflowException If the buffer ends part way through
+     */
+    public static Checkout decode(final ByteBuffer in, final ToolRegistry registry) {
+        final long key = Varints.read(in);
+        final Tool tool;
+        if (key != ToolCodes.UNPACKABLE) {
+            tool = registry.lookup(key);
+            if (null == tool) {
+                throw new IllegalArgumentException(STR."Unknown tool code `\{ToolCodes.unpack(key)}`.");
+            }
+        } else {
+            final String code = readString(in);
+            tool = registry.lookup(code).orElseThrow(
+                () -> new IllegalArgumentException(STR."Unknown tool code `\{code}`.")
+            );
+        }
+        final LocalDate checkoutDate = LocalDate.ofEpochDay(Varints.unZigZag(Varints.read(in)));
+        final int rentalDays = Varints.toInt(Varints.read(in));
+        final int discount = Varints.toInt(Varints.read(in));
+        final String region = readString(in);
+        return new Checkout(
+            tool, rentalDays, discount, checkoutDate, region.isEmpty() ? RegionCalendars.DEFAULT_REGION : region
+        );
+    }
+
+    /**
+     * Encodes a RentalAgreement, keeping its pricing as it is rather than as it would be priced now
+     * @param agreement The RentalAgreement to encode
+     * @param out Where to write it
+     * @throws java.nio.BufferOverflowException If it does not fit
+     */
+    public static void encode(final RentalAgreement agreement, final ByteBuffer out) {
+        encode(agreement.checkout(), out);
+        Varints.write(agreement.getChargeableDays(), out);
+        Varints.write(agreement.getPromotionPercent(), out);
+        Varints.write(Varints.zigZag(agreement.getDailyRentalCents()), out);
+        Varints.write(Varints.zigZag(agreement.getPreDiscountCharge()), out);
+        Varints.write(Varints.zigZag(agreement.getDiscountAmount()), out);
+        Varints.write(Varints.zigZag(agreement.getFinalCharge()), out);
+    }
+
+    /**
+     * Decodes a RentalAgreement, with the pricing it was encoded with
+     * @param in Where to read it from
+     * @param registry Where to find its Tool by code
+     * @return The decoded RentalAgreement
+     * @throws IllegalArgumentException If the encoding is malformed or names an unknown Tool
+     * @throws java.nio.BufferUnderflowException If the buffer ends part way through
+     */
+    public static RentalAgreement decodeAgreement(final ByteBuffer in, final ToolRegistry registry) {
+        final Checkout checkout = decode(in, registry);
+        final int chargeableDays = Varints.toInt(Varints.read(in));
+        final int promotionPercent = Varints.toInt(Varints.read(in));
+        final long dailyRentalCents = Varints.unZigZag(Varints.read(in));
+        final long preDiscountCents = Varints.unZigZag(Varints.read(in));
+        final long discountCents = Varints.unZigZag(Varints.read(in));
+        final long finalCents = Varints.unZigZag(Varints.read(in));
+        return new RentalAgreement(checkout, new PriceBreakdown(
+            checkout.checkoutDate().plusDays(checkout.rentalDays() - 1),
+            dailyRentalCents,
+            chargeableDays,
+            preDiscountCents,
+            promotionPercent,
+            discountCents,
+            finalCents
+        ));
+    }
+
+    /**
+     * Encodes every Checkout of a list, one after another
+     * @param checkouts The Checkouts to encode
+     * @param out Where to write them
+     * @throws java.nio.BufferOverflowException If they do not all fit
+     */
+    public static void encodeAll(final List<Checkout> checkouts, final ByteBuffer out) {
+        for (final Checkout checkout : checkouts) {
+            encode(checkout, out);
+        }
+    }
+
+    /**
+     * Decodes Checkouts until the array is full or the buffer has nothing left
+     * @param in Where to read them from
+     * @param registry Where to find their Tools by code
+     * @param into Where to put the decoded Checkouts, from index 0
+     * @return How many Checkouts were decoded
+     */
+    public static int decodeAll(final ByteBuffer in, final ToolRegistry registry, final Checkout[] into) {
+        int decoded = 0;
+        while (decoded < into.length && in.hasRemaining()) {
+            into[decoded++] = decode(in, registry);
+        }
+        return decoded;
+    }
+
+    private static void writeString(final String value, final ByteBuffer out) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        Varints.write(bytes.length, out);
+        out.put(bytes);
+    }
+
+    private static String readString(final ByteBuffer in) {
+        final int length = Varints.toInt(Varints.read(in));
+        if (length == 0) {
+            return "";
+        }
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException(STR."Encoded text of \{length} bytes runs past the end of the input.");
+        }
+        if (in.hasArray()) {
+            final String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return value;
+        }
+        final byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
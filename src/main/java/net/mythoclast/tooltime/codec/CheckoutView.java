@@ -0,0 +1,194 @@
+package net.mythoclast.tooltime.codec;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.RegionCalendars;
+import net.mythoclast.tooltime.model.Tool;
+import net.mythoclast.tooltime.model.ToolCodes;
+import net.mythoclast.tooltime.model.ToolRegistry;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * A reusable window onto one Checkout encoded by CheckoutCodec, reading its fields straight from memory.
+ * <br>
+ * Wrapping a record only finds where its fields start; each accessor then decodes one varint in place.
+ * Stepping through a buffer of Checkouts with {@link #next()} therefore creates no objects, unless a field is read
+ * as a String or the whole record is built with {@link #toCheckout(ToolRegistry)}. A view is not safe to share
+ * between threads.
+ */
+public final class CheckoutView {
+
+    private MemorySegment segment;
+    private long start;
+    private long toolOffset;
+    private long epochDayOffset;
+    private long rentalDaysOffset;
+    private long discountOffset;
+    private long regionOffset;
+    private long end;
+
+    /**
+     * Points this view at the Checkout starting at the given offset
+     * @param segment The memory holding encoded Checkouts
+     * @param offset Where the Checkout starts
+     * @return This view
+     * @throws IndexOutOfBoundsException If the segment ends part way through the Checkout
+     * @throws IllegalArgumentException If a string in the Checkout has a negative or oversized length
+     */
+    public CheckoutView wrap(final MemorySegment segment, final long offset) {
+        this.segment = segment;
+        this.start = offset;
+        toolOffset = offset;
+        long at = Varints.skip(segment, offset);
+        if (Varints.read(segment, toolOffset) == ToolCodes.UNPACKABLE) {
+            at = skipString(at);
+        }
+        epochDayOffset = at;
+        rentalDaysOffset = Varints.skip(segment, epochDayOffset);
+        discountOffset = Varints.skip(segment, rentalDaysOffset);
+        regionOffset = Varints.skip(segment, discountOffset);
+        end = skipString(regionOffset);
+        if (end > segment.byteSize()) {
+            throw new IndexOutOfBoundsException(STR."The Checkout at offset \{offset} runs past the end of its segment.");
+        }
+        return this;
+    }
+
+    /**
+     * Points this view at the Checkout at the position of a buffer, leaving the buffer's position unchanged
+     * @param buffer The buffer holding encoded Checkouts
+     * @return This view
+     */
+    public CheckoutView wrap(final ByteBuffer buffer) {
+        return wrap(MemorySegment.ofBuffer(buffer), 0);
+    }
+
+    /**
+     * Indicates if another Checkout follows the one in view
+     * @return True if the segment holds more bytes after this Checkout
+     */
+    public boolean hasNext() {
+        return end < segment.byteSize();
+    }
+
+    /**
+     * Moves this view onto the Checkout following the one in view
+     * @return This view
+     */
+    public CheckoutView next() {
+        return wrap(segment, end);
+    }
+
+    /**
+     * Returns where the Checkout in view starts
+     * @return Where the Checkout in view starts, within its segment
+     */
+    public long offset() {
+        return start;
+    }
+
+    /**
+     * Returns how many bytes the Checkout in view takes up
+     * @return How many bytes the Checkout in view takes up
+     */
+    public long encodedSize() {
+        return end - start;
+    }
+
+    /**
+     * Returns the packed tool code, which can be looked up in a ToolRegistry without creating a String
+     * @return The packed tool code, or {@link ToolCodes#UNPACKABLE} if the code did not pack
+     */
+    public long toolKey() {
+        return Varints.read(segment, toolOffset);
+    }
+
+    /**
+     * Returns the tool code as a String
+     * @return The tool code
+     */
+    public String toolCode() {
+        final long key = toolKey();
+        return key != ToolCodes.UNPACKABLE ? ToolCodes.unpack(key) : readString(Varints.skip(segment, toolOffset));
+    }
+
+    /**
+     * Returns the checkout date as an epoch day
+     * @return The checkout date as an epoch day
+     */
+    public long checkoutEpochDay() {
+        return Varints.unZigZag(Varints.read(segment, epochDayOffset));
+    }
+
+    /**
+     * Returns the rental days
+     * @return The rental days
+     */
+    public int rentalDays() {
+        return Varints.toInt(Varints.read(segment, rentalDaysOffset));
+    }
+
+    /**
+     * Returns the discount percent
+     * @return The discount percent
+     */
+    public int discount() {
+        return Varints.toInt(Varints.read(segment, discountOffset));
+    }
+
+    /**
+     * Indicates if the Checkout is in the default region, without reading the region as a String
+     * @return True if the Checkout is in the default region
+     */
+    public boolean isDefaultRegion() {
+        return Varints.read(segment, regionOffset) == 0;
+    }
+
+    /**
+     * Returns the region
+     * @return The region
+     */
+    public String region() {
+        return isDefaultRegion() ? RegionCalendars.DEFAULT_REGION : readString(regionOffset);
+    }
+
+    /**
+     * Builds the Checkout in view
+     * @param registry Where to find its Tool by code
+     * @return The Checkout in view
+     * @throws IllegalArgumentException If its Tool is unknown or it is not a valid Checkout
+     */
+    public Checkout toCheckout(final ToolRegistry registry) {
+        final long key = toolKey();
+        final Tool tool = key != ToolCodes.UNPACKABLE
+            ? registry.lookup(key)
+            : registry.lookup(toolCode()).orElse(null);
+        if (null == tool) {
+            throw new IllegalArgumentException(STR."Unknown tool code `\{toolCode()}`.");
+        }
+        return new Checkout(tool, rentalDays(), discount(), LocalDate.ofEpochDay(checkoutEpochDay()), region());
+    }
+
+    private long skipString(final long offset) {
+        final long bytesStart = Varints.skip(segment, offset);
+        final int length = Varints.toInt(Varints.read(segment, offset));
+        if (length > segment.byteSize() - bytesStart) {
+            throw new IndexOutOfBoundsException(
+                STR."The \{length} byte string at offset \{offset} runs past the end of its segment."
+            );
+        }
+        return bytesStart + length;
+    }
+
+    private String readString(final long offset) {
+        final long bytesStart = Varints.skip(segment, offset);
+        final int length = Varints.toInt(Varints.read(segment, offset));
+        return new String(segment.asSlice(bytesStart, length).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,78 @@
+package net.mythoclast.tooltime.codec;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * Little-endian base-128 variable-length integers, 7 bits per byte with the high bit marking that more follow,
+ * and zig-zag mapping of signed values so small negative numbers stay short.
+ */
+final class Varints {
+
+    private static final int MAX_LONG_BYTES = 10;
+
+    private Varints() {
+    }
+
+    static void write(final long value, final ByteBuffer out) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.put((byte) remaining);
+    }
+
+    static long read(final ByteBuffer in) {
+        long value = 0;
+        for (int i = 0; i < MAX_LONG_BYTES; i++) {
+            final byte b = in.get();
+            value |= (long) (b & 0x7F) << (7 * i);
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("A varint may not be longer than 10 bytes.");
+    }
+
+    // The value of the varint starting at the given offset.
+    static long read(final MemorySegment in, final long offset) {
+        long value = 0;
+        for (int i = 0; i < MAX_LONG_BYTES; i++) {
+            final byte b = in.get(ValueLayout.JAVA_BYTE, offset + i);
+            value |= (long) (b & 0x7F) << (7 * i);
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("A varint may not be longer than 10 bytes.");
+    }
+
+    // The offset just past the varint starting at the given offset.
+    static long skip(final MemorySegment in, final long offset) {
+        for (int i = 0; i < MAX_LONG_BYTES; i++) {
+            if (in.get(ValueLayout.JAVA_BYTE, offset + i) >= 0) {
+                return offset + i + 1;
+            }
+        }
+        throw new IllegalArgumentException("A varint may not be longer than 10 bytes.");
+    }
+
+    static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(final long encoded) {
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    static int toInt(final long value) {
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(STR."Encoded value \{value} does not fit in an int.");
+        }
+        return (int) value;
+    }
+}
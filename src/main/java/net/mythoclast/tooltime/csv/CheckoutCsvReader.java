@@ -0,0 +1,306 @@
+package net.mythoclast.tooltime.csv;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.RegionCalendars;
+import net.mythoclast.tooltime.model.Tool;
+import net.mythoclast.tooltime.model.ToolCodes;
+import net.mythoclast.tooltime.model.ToolRegistry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * Streams Checkouts out of a CSV file one chunk at a time, never holding more than one buffer of it in memory.
+ * <br>
+ * Each line holds a tool code, rental days, discount percent and ISO checkout date, in that order, optionally followed
+ * by the region checked out in:
+ * <pre>
+ * toolCode,rentalDays,discount,checkoutDate,region
+ * LADW,3,10,2020-07-02
+ * CHNS,5,25,2015-07-02,CA-ON
+ * </pre>
+ * The header line is optional. It is recognized as a first line whose tool code is not a known tool and whose rental
+ * days hold no digits at all; any other first line is a checkout, and rejected if it is malformed. Fields are not
+ * quoted, surrounding whitespace is ignored, blank lines are skipped, and lines may end in either \n or \r\n.
+ * <br>
+ * Lines are parsed straight from the read buffer. Tool codes which fit the packed form are looked up without
+ * creating a String.
+ */
+public final class CheckoutCsvReader implements AutoCloseable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int MIN_FIELDS = 4;
+    private static final int FIELDS = 5;
+
+    private final ReadableByteChannel channel;
+    private final ToolRegistry registry;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    // Unconsumed input lives in bytes[start, end).
+    private int start;
+    private int end;
+    private boolean exhausted;
+    private long lineNumber;
+    private final int[] fieldStarts = new int[FIELDS];
+    private final int[] fieldEnds = new int[FIELDS];
+
+    /**
+     * Creates a reader over the given channel
+     * @param channel Where to read CSV from
+     * @param registry Where to find Tools by code
+     * @param bufferSize How many bytes to read at a time. No line may be longer than this.
+     */
+    public CheckoutCsvReader(final ReadableByteChannel channel, final ToolRegistry registry, final int bufferSize) {
+        if (null == channel) {
+            throw new IllegalArgumentException("A CSV reader may not read from a null channel.");
+        }
+        if (null == registry) {
+            throw new IllegalArgumentException("A CSV reader may not use a null registry.");
+        }
+        this.channel = channel;
+        this.registry = registry;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.bytes = buffer.array();
+    }
+
+    /**
+     * Opens a reader over the given file
+     * @param path The CSV file to read
+     * @param registry Where to find Tools by code
+     * @return The opened reader
+     * @throws IOException If the file cannot be opened
+     */
+    public static CheckoutCsvReader open(final Path path, final ToolRegistry registry) throws IOException {
+        return new CheckoutCsvReader(FileChannel.open(path, StandardOpenOption.READ), registry, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Reads up to the given number of rows
+     * @param into Where to add the rows read
+     * @param maxRows The most rows to read
+     * @return How many rows were read. Fewer than asked for only at the end of the input.
+     * @throws IOException If the input cannot be read, or holds a line longer than the buffer
+     */
+    public int read(final List<CsvRow> into, final int maxRows) throws IOException {
+        int read = 0;
+        while (read < maxRows) {
+            final int newline = indexOfNewline();
+            if (newline < 0) {
+                if (exhausted) {
+                    if (start < end) {
+                        read += parse(start, end, into);
+                        start = end;
+                    }
+                    return read;
+                }
+                fill();
+                continue;
+            }
+            read += parse(start, newline, into);
+            start = newline + 1;
+        }
+        return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int indexOfNewline() {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Moves unconsumed input to the front of the buffer and reads more after it.
+    private void fill() throws IOException {
+        if (start == 0 && end == bytes.length) {
+            throw new IOException(STR."Line \{lineNumber + 1} is longer than \{bytes.length} bytes.");
+        }
+        System.arraycopy(bytes, start, bytes, 0, end - start);
+        end -= start;
+        start = 0;
+        buffer.limit(bytes.length).position(end);
+        final int count = channel.read(buffer);
+        if (count < 0) {
+            exhausted = true;
+        } else {
+            end += count;
+        }
+    }
+
+    // Parses bytes[from, to) as one line. Returns how many rows it produced, 0 for blank lines and the header.
+    private int parse(final int from, int to, final List<CsvRow> into) {
+        lineNumber++;
+        if (to > from && bytes[to - 1] == '\r') {
+            to--;
+        }
+        int fields = 0;
+        int fieldStart = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || bytes[i] == ',') {
+                if (fields == FIELDS) {
+                    fields++;
+                    break;
+                }
+                fieldStarts[fields] = trimStart(fieldStart, i);
+                fieldEnds[fields] = trimEnd(fieldStarts[fields], i);
+                fields++;
+                fieldStart = i + 1;
+            }
+        }
+        if (fields == 1 && fieldStarts[0] == fieldEnds[0]) {
+            return 0;
+        }
+        if (fields < MIN_FIELDS || fields > FIELDS) {
+            into.add(new CsvRow.Rejected(lineNumber, STR."Expected \{MIN_FIELDS} or \{FIELDS} fields."));
+            return 1;
+        }
+
+        final long rentalDays = parseNumber(1);
+        if (lineNumber == 1 && rentalDays < 0 && isHeader()) {
+            return 0;
+        }
+        final long discount = parseNumber(2);
+        if (rentalDays < 0 || rentalDays > Integer.MAX_VALUE) {
+            into.add(new CsvRow.Rejected(lineNumber, "Rental days is not a whole number."));
+            return 1;
+        }
+        if (discount < 0 || discount > Integer.MAX_VALUE) {
+            into.add(new CsvRow.Rejected(lineNumber, "Discount is not a whole number."));
+            return 1;
+        }
+        final Tool tool = lookupTool();
+        if (null == tool) {
+            into.add(new CsvRow.Rejected(lineNumber, STR."Unknown tool code `\{text(0)}`."));
+            return 1;
+        }
+        final LocalDate checkoutDate = parseDate();
+        if (null == checkoutDate) {
+            into.add(new CsvRow.Rejected(lineNumber, STR."`\{text(3)}` is not a yyyy-MM-dd date."));
+            return 1;
+        }
+        try {
+            into.add(new CsvRow.Parsed(
+                lineNumber, new Checkout(tool, (int) rentalDays, (int) discount, checkoutDate, region(fields))
+            ));
+        } catch (final IllegalArgumentException e) {
+            into.add(new CsvRow.Rejected(lineNumber, e.getMessage()));
+        }
+        return 1;
+    }
+
+    // The region field, or the default region if the line has none or leaves it empty.
+    private String region(final int fields) {
+        if (fields < FIELDS || fieldStarts[4] == fieldEnds[4]) {
+            return RegionCalendars.DEFAULT_REGION;
+        }
+        return text(4);
+    }
+
+    private Tool lookupTool() {
+        final int from = fieldStarts[0];
+        final int length = fieldEnds[0] - from;
+        final long key = ToolCodes.pack(bytes, from, length);
+        if (key != ToolCodes.UNPACKABLE) {
+            return registry.lookup(key);
+        }
+        return registry.lookup(text(0)).orElse(null);
+    }
+
+    // A header names its fields, so its rental days hold no digits and its tool code is not a tool.
+    private boolean isHeader() {
+        if (fieldStarts[1] == fieldEnds[1]) {
+            return false;
+        }
+        for (int i = fieldStarts[1]; i < fieldEnds[1]; i++) {
+            if (bytes[i] >= '0' && bytes[i] <= '9') {
+                return false;
+            }
+        }
+        return null == lookupTool();
+    }
+
+    // A non-negative whole number, or -1 if the field is empty, not all digits, or absurdly long.
+    private long parseNumber(final int field) {
+        final int from = fieldStarts[field];
+        final int to = fieldEnds[field];
+        if (from == to || to - from > 12) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            final int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    // yyyy-MM-dd, or null if the field is anything else.
+    private LocalDate parseDate() {
+        final int from = fieldStarts[3];
+        if (fieldEnds[3] - from != 10 || bytes[from + 4] != '-' || bytes[from + 7] != '-') {
+            return null;
+        }
+        final int year = digits(from, 4);
+        final int month = digits(from + 5, 2);
+        final int day = digits(from + 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (final DateTimeException e) {
+            return null;
+        }
+    }
+
+    private int digits(final int from, final int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            final int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private String text(final int field) {
+        return new String(
+            bytes, fieldStarts[field], fieldEnds[field] - fieldStarts[field], StandardCharsets.UTF_8
+        );
+    }
+
+    private int trimStart(int from, final int to) {
+        while (from < to && (bytes[from] == ' ' || bytes[from] == '\t')) {
+            from++;
+        }
+        return from;
+    }
+
+    private int trimEnd(final int from, int to) {
+        while (to > from && (bytes[to - 1] == ' ' || bytes[to - 1] == '\t')) {
+            to--;
+        }
+        return to;
+    }
+}
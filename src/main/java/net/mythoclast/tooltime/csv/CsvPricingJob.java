@@ -0,0 +1,120 @@
+package net.mythoclast.tooltime.csv;
+
+import net.mythoclast.tooltime.batch.BatchPricer;
+import net.mythoclast.tooltime.batch.PricingResult;
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.ToolRegistry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prices a CSV file of Checkouts into a CSV file of priced agreements, a chunk of rows at a time.
+ * <br>
+ * Only one chunk of rows is ever held in memory, however large the input is. Each chunk is priced across all cores
+ * by a BatchPricer. Lines that cannot be parsed, validated or priced are written to a separate rejects file along
+ * with the reason, and do not stop the job.
+ */
+public final class CsvPricingJob {
+
+    /**
+     * What a job did.
+     *
+     * @param priced How many lines were priced
+     * @param rejected How many lines were rejected
+     */
+    public record Summary(long priced, long rejected) {
+    }
+
+    private static final int DEFAULT_CHUNK_ROWS = 16_384;
+
+    private final ToolRegistry registry;
+    private final BatchPricer pricer;
+    private final int chunkRows;
+
+    /**
+     * Creates a job which looks Tools up in the given registry and prices on the common ForkJoinPool
+     * @param registry Where to find Tools by code
+     */
+    public CsvPricingJob(final ToolRegistry registry) {
+        this(registry, new BatchPricer(BatchPricer.Mode.THROUGHPUT), DEFAULT_CHUNK_ROWS);
+    }
+
+    /**
+     * Creates a job
+     * @param registry Where to find Tools by code
+     * @param pricer What to price each chunk with
+     * @param chunkRows How many rows to read and price at a time
+     */
+    public CsvPricingJob(final ToolRegistry registry, final BatchPricer pricer, final int chunkRows) {
+        if (chunkRows < 1) {
+            throw new IllegalArgumentException("A pricing job must read at least one row at a time.");
+        }
+        this.registry = registry;
+        this.pricer = pricer;
+        this.chunkRows = chunkRows;
+    }
+
+    /**
+     * Prices every line of the input
+     * @param input The checkout CSV to read
+     * @param output Where to write priced agreements
+     * @param rejects Where to write lines that could not be priced
+     * @return How many lines were priced and rejected
+     * @throws IOException If any of the files cannot be read or written
+     */
+    public Summary run(final Path input, final Path output, final Path rejects) throws IOException {
+        try (
+            final CheckoutCsvReader reader = CheckoutCsvReader.open(input, registry);
+            final PricedCsvWriter writer = new PricedCsvWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8));
+            final Writer rejectWriter = Files.newBufferedWriter(rejects, StandardCharsets.UTF_8)
+        ) {
+            rejectWriter.write("line,reason\n");
+            final List<CsvRow> rows = new ArrayList<>(chunkRows);
+            final List<Checkout> checkouts = new ArrayList<>(chunkRows);
+            final List<Long> lineNumbers = new ArrayList<>(chunkRows);
+            long priced = 0;
+            long rejected = 0;
+            while (reader.read(rows, chunkRows) > 0) {
+                for (final CsvRow row : rows) {
+                    switch (row) {
+                        case CsvRow.Parsed parsed -> {
+                            checkouts.add(parsed.checkout());
+                            lineNumbers.add(parsed.lineNumber());
+                        }
+                        case CsvRow.Rejected reject -> {
+                            reject(rejectWriter, reject.lineNumber(), reject.reason());
+                            rejected++;
+                        }
+                    }
+                }
+                for (final PricingResult result : pricer.price(checkouts)) {
+                    final long lineNumber = lineNumbers.get(result.index());
+                    switch (result) {
+                        case PricingResult.Priced done -> {
+                            writer.write(lineNumber, done.agreement());
+                            priced++;
+                        }
+                        case PricingResult.Failed failed -> {
+                            reject(rejectWriter, lineNumber, String.valueOf(failed.error().getMessage()));
+                            rejected++;
+                        }
+                    }
+                }
+                rows.clear();
+                checkouts.clear();
+                lineNumbers.clear();
+            }
+            return new Summary(priced, rejected);
+        }
+    }
+
+    private static void reject(final Writer out, final long lineNumber, final String reason) throws IOException {
+        out.append(PricedCsvWriter.quote(reason, new StringBuilder().append(lineNumber).append(','))).append('\n');
+    }
+}
@@ -0,0 +1,33 @@
+package net.mythoclast.tooltime.csv;
+
+import net.mythoclast.tooltime.model.Checkout;
+
+/**
+ * One line of a checkout CSV file, after parsing and validation.
+ */
+public sealed interface CsvRow {
+
+    /**
+     * Returns the line of the file this row came from, starting at 1
+     * @return The line of the file this row came from
+     */
+    long lineNumber();
+
+    /**
+     * A line describing a valid Checkout.
+     *
+     * @param lineNumber The line of the file this row came from
+     * @param checkout The Checkout the line describes
+     */
+    record Parsed(long lineNumber, Checkout checkout) implements CsvRow {
+    }
+
+    /**
+     * A line which could not be turned into a Checkout.
+     *
+     * @param lineNumber The line of the file this row came from
+     * @param reason Why the line was rejected
+     */
+    record Rejected(long lineNumber, String reason) implements CsvRow {
+    }
+}
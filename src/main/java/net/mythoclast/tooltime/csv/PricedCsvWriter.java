@@ -0,0 +1,100 @@
+package net.mythoclast.tooltime.csv;
+
+import net.mythoclast.tooltime.model.RentalAgreement;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes priced RentalAgreements as CSV, one line each, with amounts in whole cents and dates in ISO form.
+ * <pre>
+ * line,toolCode,toolType,toolBrand,rentalDays,checkoutDate,dueDate,dailyRentalCents,chargeDays,preDiscountCents,discountPercent,discountCents,finalCents
+ * </pre>
+ * Text fields are quoted when they contain a comma, quote or line break.
+ */
+public final class PricedCsvWriter implements AutoCloseable {
+
+    /**
+     * The header line written before any rows
+     */
+    public static final String HEADER = "line,toolCode,toolType,toolBrand,rentalDays,checkoutDate,dueDate,"
+        + "dailyRentalCents,chargeDays,preDiscountCents,discountPercent,discountCents,finalCents";
+
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(160);
+
+    /**
+     * Creates a writer and writes the header line
+     * @param out Where to write CSV to. Should be buffered.
+     * @throws IOException If the header cannot be written
+     */
+    public PricedCsvWriter(final Writer out) throws IOException {
+        this.out = out;
+        out.write(HEADER);
+        out.write('\n');
+    }
+
+    /**
+     * Writes one priced agreement
+     * @param lineNumber The line of the input the agreement was priced from
+     * @param agreement The priced agreement
+     * @throws IOException If the row cannot be written
+     */
+    public void write(final long lineNumber, final RentalAgreement agreement) throws IOException {
+        line.setLength(0);
+        line.append(lineNumber).append(',');
+        text(agreement.getToolCode()).append(',');
+        text(agreement.getToolDescription()).append(',');
+        text(agreement.getToolBrand()).append(',');
+        line.append(agreement.getRentalDays()).append(',')
+            .append(agreement.getCheckoutDate()).append(',')
+            .append(agreement.getDueDate()).append(',')
+            .append(agreement.getDailyRentalCents()).append(',')
+            .append(agreement.getChargeableDays()).append(',')
+            .append(agreement.getPreDiscountCharge()).append(',')
+            .append(agreement.getDiscountPercent()).append(',')
+            .append(agreement.getDiscountAmount()).append(',')
+            .append(agreement.getFinalCharge()).append('\n');
+        out.append(line);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Appends a text field to the current line, quoted if it needs to be
+     * @param value The text to append
+     * @return The line being built
+     */
+    private StringBuilder text(final String value) {
+        return quote(value, line);
+    }
+
+    /**
+     * Appends a text field to a line of CSV, quoted if it needs to be
+     * @param value The text to append
+     * @param to The line to append to
+     * @return The given line
+     */
+    static StringBuilder quote(final String value, final StringBuilder to) {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            final char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            return to.append(value);
+        }
+        to.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"') {
+                to.append('"');
+            }
+            to.append(c);
+        }
+        return to.append('"');
+    }
+}
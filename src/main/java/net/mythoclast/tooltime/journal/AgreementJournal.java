@@ -0,0 +1,349 @@
+package net.mythoclast.tooltime.journal;
+
+import net.mythoclast.tooltime.model.RentalAgreement;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * A durable, append-only log of priced RentalAgreements, kept in a memory-mapped file.
+ * <br>
+ * Every agreement is written as one fixed-width binary record straight into the mapping, so appending makes no
+ * system calls bar one header sync every {@value #HIGH_WATER_STEP} records. Appended records become durable when
+ * {@link #commit()} flushes them to disk, which covers every record appended since the last commit in one go. A
+ * journal can also be told to commit by itself every so many records.
+ * <br>
+ * Each record carries its sequence number and a checksum. Replay stops at the first empty or damaged record, so a
+ * record torn by a crash mid-write is simply not replayed. Reopening a journal clears every record after the last
+ * intact one, so appends carry on from there without ever replaying what came after the tear. The header holds a
+ * high-water mark, synced before any record past it is written, so only the slots below it need checking; a healthy
+ * journal has at most {@value #HIGH_WATER_STEP} of them, all empty, to look over and nothing to clear.
+ * <pre>
+ * Header, 64 bytes: magic (long), version (int), record size (int), high-water mark in records (long),
+ *   zero padding
+ * Record, 104 bytes:
+ *   0 sequence (long)           8 tool code (16 bytes ASCII, zero padded)
+ *  24 checkout epoch day (long) 32 rental days (int)   36 discount percent (int)
+ *  40 daily rental cents (long) 48 chargeable days (int) 52 promotion percent (int)
+ *  56 pre-discount cents (long) 64 discount cents (long) 72 final cents (long)
+ *  80 region id (16 bytes ASCII, zero padded)
+ *  96 checksum of bytes 0-95 (long)
+ * </pre>
+ * Values are stored in the platform's native byte order, as journals are meant to be replayed where they were written.
+ * Appending and committing are safe to call from multiple threads.
+ */
+public final class AgreementJournal implements AutoCloseable {
+
+    private static final long MAGIC = 0x4C4E524A4C4F4F54L; // "TOOLJRNL" when stored little-endian
+    private static final int VERSION = 2;
+    private static final long HEADER_SIZE = 64;
+    private static final long RECORD_SIZE = 104;
+    // Tool codes and region ids alike.
+    private static final int CODE_LENGTH = 16;
+    private static final long INITIAL_CAPACITY = 65_536;
+    private static final long HIGH_WATER = 16;
+    private static final long HIGH_WATER_STEP = 1024;
+
+    private static final long SEQUENCE = 0;
+    private static final long TOOL_CODE = 8;
+    private static final long CHECKOUT_DAY = 24;
+    private static final long RENTAL_DAYS = 32;
+    private static final long DISCOUNT_PERCENT = 36;
+    private static final long DAILY_CENTS = 40;
+    private static final long CHARGEABLE_DAYS = 48;
+    private static final long PROMOTION_PERCENT = 52;
+    private static final long PRE_DISCOUNT_CENTS = 56;
+    private static final long DISCOUNT_CENTS = 64;
+    private static final long FINAL_CENTS = 72;
+    private static final long REGION = 80;
+    private static final long CHECKSUM = 96;
+
+    private final FileChannel channel;
+    private final int commitEvery;
+    private Arena arena;
+    private MemorySegment mapping;
+    private long capacity;
+    private long appended;
+    private long committed;
+    private long highWater;
+
+    private AgreementJournal(final FileChannel channel, final int commitEvery) throws IOException {
+        this.channel = channel;
+        this.commitEvery = commitEvery;
+        final boolean created = channel.size() == 0;
+        final long existingRecords = Math.max(0, (channel.size() - HEADER_SIZE) / RECORD_SIZE);
+        map(Math.max(INITIAL_CAPACITY, existingRecords));
+        if (created) {
+            mapping.set(ValueLayout.JAVA_LONG, 0, MAGIC);
+            mapping.set(ValueLayout.JAVA_INT, 8, VERSION);
+            mapping.set(ValueLayout.JAVA_INT, 12, (int) RECORD_SIZE);
+            mapping.asSlice(0, HEADER_SIZE).force();
+        } else {
+            checkHeader(mapping);
+        }
+        appended = countValidRecords(mapping, capacity);
+        committed = appended;
+        highWater = mapping.get(ValueLayout.JAVA_LONG, HIGH_WATER);
+        // Anything after the last intact record was never durably appended. Clear it before appending over it,
+        // so a stale record from before a torn one can't line up with the new sequence and be replayed. Nothing
+        // was ever written at or past the high-water mark, so the search for written slots stops there.
+        long written = Math.min(highWater, existingRecords);
+        while (written > appended
+            && isEmpty(mapping.asSlice(HEADER_SIZE + (written - 1) * RECORD_SIZE, RECORD_SIZE))) {
+            written--;
+        }
+        if (written > appended) {
+            final MemorySegment tail = mapping.asSlice(
+                HEADER_SIZE + appended * RECORD_SIZE, (written - appended) * RECORD_SIZE
+            );
+            tail.fill((byte) 0);
+            tail.force();
+        }
+    }
+
+    /**
+     * Opens a journal for appending, creating it if it does not exist yet. Nothing is committed automatically.
+     * @param path The journal file
+     * @return The opened journal, positioned after its last intact record
+     * @throws IOException If the file cannot be opened or mapped, or is not a journal
+     */
+    public static AgreementJournal open(final Path path) throws IOException {
+        return open(path, 0);
+    }
+
+    /**
+     * Opens a journal for appending, creating it if it does not exist yet
+     * @param path The journal file
+     * @param commitEvery Commit automatically once this many records are waiting. 0 to only commit when asked.
+     * @return The opened journal, positioned after its last intact record
+     * @throws IOException If the file cannot be opened or mapped, or is not a journal
+     */
+    public static AgreementJournal open(final Path path, final int commitEvery) throws IOException {
+        if (commitEvery < 0) {
+            throw new IllegalArgumentException("A journal may not commit every negative number of records.");
+        }
+        final FileChannel channel = FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+        );
+        try {
+            return new AgreementJournal(channel, commitEvery);
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends a RentalAgreement to the journal. It is not durable until the next commit.
+     * @param agreement The agreement to record
+     * @return The sequence number of the new record, starting at 1
+     * @throws IOException If the journal had to grow and could not
+     */
+    public synchronized long append(final RentalAgreement agreement) throws IOException {
+        final byte[] code = ascii("Tool code", agreement.getToolCode());
+        final byte[] region = ascii("Region", agreement.checkout().region());
+        if (appended == capacity) {
+            map(capacity * 2);
+        }
+        if (appended == highWater) {
+            // Synced before the record is written, so a record can never exist past the mark on disk.
+            highWater += HIGH_WATER_STEP;
+            mapping.set(ValueLayout.JAVA_LONG, HIGH_WATER, highWater);
+            mapping.asSlice(0, HEADER_SIZE).force();
+        }
+        final long sequence = appended + 1;
+        final MemorySegment record = mapping.asSlice(HEADER_SIZE + appended * RECORD_SIZE, RECORD_SIZE);
+        record.set(ValueLayout.JAVA_LONG, SEQUENCE, sequence);
+        writeAscii(code, record, TOOL_CODE);
+        record.set(ValueLayout.JAVA_LONG, CHECKOUT_DAY, agreement.getCheckoutDate().toEpochDay());
+        record.set(ValueLayout.JAVA_INT, RENTAL_DAYS, agreement.getRentalDays());
+        record.set(ValueLayout.JAVA_INT, DISCOUNT_PERCENT, agreement.checkout().discount());
+        record.set(ValueLayout.JAVA_LONG, DAILY_CENTS, agreement.getDailyRentalCents());
+        record.set(ValueLayout.JAVA_INT, CHARGEABLE_DAYS, agreement.getChargeableDays());
+        record.set(ValueLayout.JAVA_INT, PROMOTION_PERCENT, agreement.getPromotionPercent());
+        record.set(ValueLayout.JAVA_LONG, PRE_DISCOUNT_CENTS, agreement.getPreDiscountCharge());
+        record.set(ValueLayout.JAVA_LONG, DISCOUNT_CENTS, agreement.getDiscountAmount());
+        record.set(ValueLayout.JAVA_LONG, FINAL_CENTS, agreement.getFinalCharge());
+        writeAscii(region, record, REGION);
+        record.set(ValueLayout.JAVA_LONG, CHECKSUM, checksum(record));
+        appended++;
+
+        if (commitEvery > 0 && appended - committed >= commitEvery) {
+            commit();
+        }
+        return sequence;
+    }
+
+    /**
+     * Flushes every record appended since the last commit to disk, in a single sync
+     */
+    public synchronized void commit() {
+        if (appended == committed) {
+            return;
+        }
+        final long from = HEADER_SIZE + committed * RECORD_SIZE;
+        mapping.asSlice(from, (appended - committed) * RECORD_SIZE).force();
+        committed = appended;
+    }
+
+    /**
+     * Returns how many records the journal holds, committed or not
+     * @return How many records the journal holds
+     */
+    public synchronized long size() {
+        return appended;
+    }
+
+    /**
+     * Commits anything outstanding and closes the journal
+     * @throws IOException If the file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        commit();
+        arena.close();
+        channel.close();
+    }
+
+    /**
+     * Reads every intact record of a journal, in order
+     * @param path The journal file
+     * @param visitor Called once for each record
+     * @return How many records were replayed
+     * @throws IOException If the file cannot be opened or mapped, or is not a journal
+     */
+    public static long replay(final Path path, final Consumer<JournalEntry> visitor) throws IOException {
+        try (
+            final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            final Arena arena = Arena.ofConfined()
+        ) {
+            if (channel.size() < HEADER_SIZE) {
+                return 0;
+            }
+            final MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            checkHeader(segment);
+            final long slots = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+            long replayed = 0;
+            for (long i = 0; i < slots; i++) {
+                final MemorySegment record = segment.asSlice(HEADER_SIZE + i * RECORD_SIZE, RECORD_SIZE);
+                if (!isIntact(record, i + 1)) {
+                    break;
+                }
+                visitor.accept(read(record));
+                replayed++;
+            }
+            return replayed;
+        }
+    }
+
+    private static JournalEntry read(final MemorySegment record) {
+        return new JournalEntry(
+            record.get(ValueLayout.JAVA_LONG, SEQUENCE),
+            readAscii(record, TOOL_CODE),
+            record.get(ValueLayout.JAVA_LONG, CHECKOUT_DAY),
+            record.get(ValueLayout.JAVA_INT, RENTAL_DAYS),
+            record.get(ValueLayout.JAVA_INT, DISCOUNT_PERCENT),
+            record.get(ValueLayout.JAVA_LONG, DAILY_CENTS),
+            record.get(ValueLayout.JAVA_INT, CHARGEABLE_DAYS),
+            record.get(ValueLayout.JAVA_LONG, PRE_DISCOUNT_CENTS),
+            record.get(ValueLayout.JAVA_INT, PROMOTION_PERCENT),
+            record.get(ValueLayout.JAVA_LONG, DISCOUNT_CENTS),
+            record.get(ValueLayout.JAVA_LONG, FINAL_CENTS),
+            readAscii(record, REGION)
+        );
+    }
+
+    private static byte[] ascii(final String name, final String value) {
+        if (value.length() > CODE_LENGTH || !value.chars().allMatch(c -> c > 0 && c < 0x80)) {
+            throw new IllegalArgumentException(
+                STR."\{name} `\{value}` must be at most \{CODE_LENGTH} ASCII characters to be journaled."
+            );
+        }
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static void writeAscii(final byte[] value, final MemorySegment record, final long offset) {
+        MemorySegment.copy(value, 0, record, ValueLayout.JAVA_BYTE, offset, value.length);
+        record.asSlice(offset + value.length, CODE_LENGTH - value.length).fill((byte) 0);
+    }
+
+    private static String readAscii(final MemorySegment record, final long offset) {
+        int length = 0;
+        while (length < CODE_LENGTH && record.get(ValueLayout.JAVA_BYTE, offset + length) != 0) {
+            length++;
+        }
+        final byte[] value = new byte[length];
+        MemorySegment.copy(record, ValueLayout.JAVA_BYTE, offset, value, 0, length);
+        return new String(value, StandardCharsets.US_ASCII);
+    }
+
+    // Maps the file large enough for the given number of records, replacing any previous mapping.
+    private void map(final long records) throws IOException {
+        final Arena next = Arena.ofShared();
+        try {
+            final MemorySegment nextMapping = channel.map(
+                FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + records * RECORD_SIZE, next
+            );
+            if (null != arena) {
+                commit();
+                arena.close();
+            }
+            arena = next;
+            mapping = nextMapping;
+            capacity = records;
+        } catch (final IOException | RuntimeException e) {
+            next.close();
+            throw e;
+        }
+    }
+
+    private static void checkHeader(final MemorySegment segment) throws IOException {
+        if (segment.get(ValueLayout.JAVA_LONG, 0) != MAGIC) {
+            throw new IOException("File is not an agreement journal.");
+        }
+        final int version = segment.get(ValueLayout.JAVA_INT, 8);
+        if (version != VERSION || segment.get(ValueLayout.JAVA_INT, 12) != RECORD_SIZE) {
+            throw new IOException(STR."Agreement journal version \{version} is not supported.");
+        }
+    }
+
+    private static long countValidRecords(final MemorySegment segment, final long slots) {
+        long count = 0;
+        while (count < slots && isIntact(segment.asSlice(HEADER_SIZE + count * RECORD_SIZE, RECORD_SIZE), count + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean isEmpty(final MemorySegment record) {
+        for (long offset = 0; offset < RECORD_SIZE; offset += Long.BYTES) {
+            if (record.get(ValueLayout.JAVA_LONG, offset) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isIntact(final MemorySegment record, final long expectedSequence) {
+        return record.get(ValueLayout.JAVA_LONG, SEQUENCE) == expectedSequence
+            && record.get(ValueLayout.JAVA_LONG, CHECKSUM) == checksum(record);
+    }
+
+    private static long checksum(final MemorySegment record) {
+        long hash = 0xCBF29CE484222325L;
+        for (long offset = 0; offset < CHECKSUM; offset += Long.BYTES) {
+            hash = (hash ^ record.get(ValueLayout.JAVA_LONG, offset)) * 0x100000001B3L;
+            hash ^= hash >>> 29;
+        }
+        return hash;
+    }
+}
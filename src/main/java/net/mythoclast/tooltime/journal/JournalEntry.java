@@ -0,0 +1,67 @@
+package net.mythoclast.tooltime.journal;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.PriceBreakdown;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.Tool;
+import net.mythoclast.tooltime.model.ToolRegistry;
+
+import java.time.LocalDate;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * One RentalAgreement as recorded in an AgreementJournal.
+ *
+ * @param sequence Position of the entry in its journal, starting at 1
+ * @param toolCode Code of the rented Tool
+ * @param checkoutEpochDay Day the Checkout occurred, as an epoch day
+ * @param rentalDays How many days the Tool was rented for
+ * @param discountPercent Discount percentage entered on the Checkout
+ * @param dailyRentalCents Daily rental price the agreement was priced at, in cents
+ * @param chargeableDays How many days a charge was levied for
+ * @param preDiscountCents The rental charge before discount, in cents
+ * @param promotionPercent Discount percentage Promotions added to the one entered
+ * @param discountCents The amount of the rental discount, in cents
+ * @param finalCents The rental charge after discount, in cents
+ * @param region Id of the store region the Checkout occurred in
+ */
+public record JournalEntry(
+        long sequence,
+        String toolCode,
+        long checkoutEpochDay,
+        int rentalDays,
+        int discountPercent,
+        long dailyRentalCents,
+        int chargeableDays,
+        long preDiscountCents,
+        int promotionPercent,
+        long discountCents,
+        long finalCents,
+        String region
+) {
+    /**
+     * Rebuilds the RentalAgreement this entry was recorded from, keeping the recorded pricing rather than re-pricing
+     * @param registry Where to find the rented Tool by its code
+     * @return The recorded RentalAgreement
+     * @throws IllegalArgumentException If the rented Tool is not in the registry
+     */
+    public RentalAgreement toAgreement(final ToolRegistry registry) {
+        final Tool tool = registry.lookup(toolCode).orElseThrow(
+            () -> new IllegalArgumentException(STR."Journaled tool code `\{toolCode}` is not registered.")
+        );
+        final LocalDate checkoutDate = LocalDate.ofEpochDay(checkoutEpochDay);
+        return new RentalAgreement(
+            new Checkout(tool, rentalDays, discountPercent, checkoutDate, region),
+            new PriceBreakdown(
+                checkoutDate.plusDays(rentalDays - 1),
+                dailyRentalCents,
+                chargeableDays,
+                preDiscountCents,
+                promotionPercent,
+                discountCents,
+                finalCents
+            )
+        );
+    }
+}
@@ -0,0 +1,118 @@
+package net.mythoclast.tooltime.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds, with buckets no wider than one eighth of their lower bound.
+ * <br>
+ * Latencies below 8ns each get their own bucket. Above that, every power of two is split into 8 equal buckets,
+ * so the whole range of a long fits in under 500 buckets and recording is a few shifts and one atomic increment.
+ * Buckets are striped by thread so concurrent recorders of similar latencies rarely contend on one counter.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final int MAX_STRIPES = 16;
+
+    private final int stripeMask;
+    private final AtomicLongArray counts;
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Creates an empty histogram
+     */
+    public LatencyHistogram() {
+        final int stripes = Math.min(
+            MAX_STRIPES, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1)
+        );
+        stripeMask = stripes - 1;
+        counts = new AtomicLongArray(stripes * BUCKETS);
+    }
+
+    /**
+     * Records one latency
+     * @param nanos The latency to record, in nanoseconds. Negative values are recorded as 0.
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        final int stripe = (int) Thread.currentThread().threadId() & stripeMask;
+        counts.getAndIncrement(stripe * BUCKETS + bucketOf(value));
+        total.add(value);
+        long seen = max.get();
+        while (value > seen && !max.compareAndSet(seen, value)) {
+            seen = max.get();
+        }
+    }
+
+    /**
+     * Returns the state of this histogram. Latencies recorded while the snapshot is taken may or may not be included.
+     * @return The state of this histogram
+     */
+    public LatencySnapshot snapshot() {
+        final long[] merged = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            final long bucketCount = counts.get(i);
+            merged[i % BUCKETS] += bucketCount;
+            count += bucketCount;
+        }
+        return new LatencySnapshot(
+            count,
+            total.sum(),
+            percentile(merged, count, 0.5),
+            percentile(merged, count, 0.99),
+            percentile(merged, count, 0.999),
+            max.get()
+        );
+    }
+
+    /**
+     * Forgets everything recorded so far
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        max.set(0);
+    }
+
+    // The value at the given quantile, reported as the upper bound of the bucket it falls in.
+    private static long percentile(final long[] merged, final long count, final double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += merged[i];
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(BUCKETS - 1);
+    }
+
+    static int bucketOf(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = bucket / SUB_BUCKETS - 1;
+        final long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,29 @@
+package net.mythoclast.tooltime.metrics;
+
+/**
+ * The state of a LatencyHistogram at one moment. Percentiles are the upper bound of the bucket they fall in,
+ * so they overstate the true value by at most one eighth.
+ *
+ * @param count How many latencies were recorded
+ * @param totalNanos The sum of all recorded latencies, in nanoseconds
+ * @param p50Nanos The median latency, in nanoseconds
+ * @param p99Nanos The 99th percentile latency, in nanoseconds
+ * @param p999Nanos The 99.9th percentile latency, in nanoseconds
+ * @param maxNanos The longest latency, in nanoseconds
+ */
+public record LatencySnapshot(
+        long count,
+        long totalNanos,
+        long p50Nanos,
+        long p99Nanos,
+        long p999Nanos,
+        long maxNanos
+) {
+    /**
+     * Returns the mean latency, in nanoseconds
+     * @return The mean latency, or 0 if nothing was recorded
+     */
+    public long meanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+}
@@ -0,0 +1,36 @@
+package net.mythoclast.tooltime.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A Flight Recorder event for one timed stage of pricing a RentalAgreement.
+ * <br>
+ * Committed as an instant event carrying its own elapsed time, since the stage has already finished by the time
+ * PricingMetrics knows how long it took. Stack traces are off, as the stage is always the same few frames.
+ */
+@Name("net.mythoclast.tooltime.Pricing")
+@Label("Pricing Stage")
+@Category({"ToolTime", "Pricing"})
+@Description("One timed stage of pricing a rental agreement")
+@StackTrace(false)
+final class PricingEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Tool Code")
+    String toolCode;
+
+    @Label("Rental Days")
+    int rentalDays;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
@@ -0,0 +1,133 @@
+package net.mythoclast.tooltime.metrics;
+
+import jdk.jfr.EventType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Times the stages of pricing RentalAgreements, into one LatencyHistogram per stage and, when a recording asks for
+ * them, Flight Recorder events.
+ * <br>
+ * Metrics are off unless the {@value #ENABLED_PROPERTY} system property is true or {@link #setEnabled(boolean)}
+ * turns them on. Flight Recorder events are emitted whenever a recording enables them, whether metrics are on or
+ * not. While both are off, timing a stage costs a couple of reads and branches, and nothing is allocated.
+ * <br>
+ * Stages are timed by pairing the two calls around them:
+ * <pre>
+ * final long started = PricingMetrics.start();
+ * // ... the stage ...
+ * PricingMetrics.stop(PricingStage.DISCOUNT, toolCode, rentalDays, started);
+ * </pre>
+ */
+public final class PricingMetrics {
+
+    /**
+     * The system property which turns metrics on at startup
+     */
+    public static final String ENABLED_PROPERTY = "tooltime.metrics";
+
+    /**
+     * Returned by {@link #start()} while metrics and their Flight Recorder events are off. Never a real start time.
+     */
+    public static final long DISABLED = Long.MIN_VALUE;
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(PricingEvent.class);
+
+    private static final LatencyHistogram[] HISTOGRAMS = new LatencyHistogram[PricingStage.values().length];
+
+    static {
+        for (int i = 0; i < HISTOGRAMS.length; i++) {
+            HISTOGRAMS[i] = new LatencyHistogram();
+        }
+    }
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private PricingMetrics() {
+    }
+
+    /**
+     * Returns whether stages are being recorded into histograms
+     * @return True if stages are being recorded into histograms
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns recording of stages into histograms on or off. Stages already started when metrics are turned off are
+     * not recorded.
+     * @param on Whether stages should be recorded into histograms
+     */
+    public static void setEnabled(final boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Marks the start of a stage
+     * @return The time the stage started, or {@link #DISABLED} if neither metrics nor their events are on
+     */
+    public static long start() {
+        return enabled || EVENT_TYPE.isEnabled() ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Marks the end of a stage and records how long it took
+     * @param stage The stage which ended
+     * @param toolCode The code of the Tool being priced
+     * @param rentalDays The rental length being priced
+     * @param started What {@link #start()} returned at the start of the stage
+     * @return The time the stage ended, which may serve as the start of the next, or {@link #DISABLED}
+     */
+    public static long stop(final PricingStage stage, final String toolCode, final int rentalDays, final long started) {
+        if (started == DISABLED) {
+            return DISABLED;
+        }
+        final long stopped = System.nanoTime();
+        final long elapsed = stopped - started;
+        if (enabled) {
+            HISTOGRAMS[stage.ordinal()].record(elapsed);
+        }
+        // Whether to commit is up to the recording, whatever the metrics flag says.
+        final PricingEvent event = new PricingEvent();
+        if (event.shouldCommit()) {
+            event.stage = stage.getDescription();
+            event.toolCode = toolCode;
+            event.rentalDays = rentalDays;
+            event.elapsed = elapsed;
+            event.commit();
+        }
+        return stopped;
+    }
+
+    /**
+     * Returns the latencies recorded for one stage
+     * @param stage The stage to report on
+     * @return The latencies recorded for the stage
+     */
+    public static LatencySnapshot snapshot(final PricingStage stage) {
+        return HISTOGRAMS[stage.ordinal()].snapshot();
+    }
+
+    /**
+     * Returns the latencies recorded for every stage
+     * @return The latencies recorded for every stage, in stage order
+     */
+    public static Map<PricingStage, LatencySnapshot> snapshot() {
+        final Map<PricingStage, LatencySnapshot> snapshots = new EnumMap<>(PricingStage.class);
+        for (final PricingStage stage : PricingStage.values()) {
+            snapshots.put(stage, snapshot(stage));
+        }
+        return snapshots;
+    }
+
+    /**
+     * Forgets every latency recorded so far
+     */
+    public static void reset() {
+        for (final LatencyHistogram histogram : HISTOGRAMS) {
+            histogram.reset();
+        }
+    }
+}
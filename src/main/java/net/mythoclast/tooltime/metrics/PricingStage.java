@@ -0,0 +1,33 @@
+package net.mythoclast.tooltime.metrics;
+
+/**
+ * The parts of pricing a RentalAgreement which are timed separately.
+ */
+public enum PricingStage {
+    /**
+     * Counting the chargeable days of the rental period
+     */
+    CHARGEABLE_DAYS("Chargeable days"),
+    /**
+     * Working out the pre-discount, discount and final amounts
+     */
+    DISCOUNT("Discount"),
+    /**
+     * Rendering the printable report
+     */
+    REPORT("Report");
+
+    private final String description;
+
+    PricingStage(final String description) {
+        this.description = description;
+    }
+
+    /**
+     * Returns a human-readable name for this stage
+     * @return A human-readable name for this stage
+     */
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,71 @@
+package net.mythoclast.tooltime.model;
+
+/**
+ * Describes a change to the length of a rental, from the agreement as it stood to the agreement as amended.
+ * Every change is reported as amended minus original, so extensions are positive and early returns negative.
+ *
+ * @param original The RentalAgreement before the change
+ * @param amended The RentalAgreement after the change
+ */
+public record Amendment(
+        RentalAgreement original,
+        RentalAgreement amended
+) {
+    public Amendment {
+        if (null == original) {
+            throw new IllegalArgumentException("An amendment may not have a null original agreement.");
+        }
+        if (null == amended) {
+            throw new IllegalArgumentException("An amendment may not have a null amended agreement.");
+        }
+    }
+
+    /**
+     * Returns the change in the number of rental days
+     * @return The change in the number of rental days
+     */
+    public int getRentalDaysChange() {
+        return amended.getRentalDays() - original.getRentalDays();
+    }
+
+    /**
+     * Returns the change in the number of chargeable days
+     * @return The change in the number of chargeable days
+     */
+    public int getChargeableDaysChange() {
+        return amended.getChargeableDays() - original.getChargeableDays();
+    }
+
+    /**
+     * Returns the change in the pre-discount rental charge, in cents
+     * @return The change in the pre-discount rental charge, in cents
+     */
+    public long getPreDiscountChange() {
+        return Money.minus(amended.getPreDiscountCharge(), original.getPreDiscountCharge());
+    }
+
+    /**
+     * Returns the change in the amount of the rental discount, in cents
+     * @return The change in the amount of the rental discount, in cents
+     */
+    public long getDiscountChange() {
+        return Money.minus(amended.getDiscountAmount(), original.getDiscountAmount());
+    }
+
+    /**
+     * Returns the change in the final rental charge, in cents. This is what the customer owes, or is refunded if
+     * negative.
+     * @return The change in the final rental charge, in cents
+     */
+    public long getFinalChargeChange() {
+        return Money.minus(amended.getFinalCharge(), original.getFinalCharge());
+    }
+
+    /**
+     * Returns the formatted change in the final rental charge, in dollars and cents
+     * @return The formatted change in the final rental charge, in dollars and cents
+     */
+    public String getPrettyFinalChargeChange() {
+        return Money.format(getFinalChargeChange());
+    }
+}
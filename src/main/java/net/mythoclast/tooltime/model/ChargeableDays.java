@@ -0,0 +1,82 @@
+package net.mythoclast.tooltime.model;
+
+import java.time.LocalDate;
+
+/**
+ * Counts chargeable days arithmetically, so the cost of pricing a rental does not depend on how long it is.
+ */
+public final class ChargeableDays {
+
+    // Epoch day 0 (1970-01-01) was a Thursday. Adding this offset makes day 0 of the shifted count a Monday.
+    private static final int EPOCH_DAY_MONDAY_OFFSET = 3;
+
+    private static final int ALL_DAYS = Rate.WEEKDAYS | Rate.WEEKENDS;
+
+    private ChargeableDays() {
+    }
+
+    /**
+     * Computes the number of days between two dates (both inclusive) for which a charge will be levied
+     * @param toolType The ToolType whose charge rules apply, taken from the current RateTable as of the first day
+     * @param from The first rental day
+     * @param to The last rental day
+     * @return The number of chargeable days in the given range
+     */
+    public static int count(final ToolType toolType, final LocalDate from, final LocalDate to) {
+        return count(toolType.getRate(from), from, to);
+    }
+
+    /**
+     * Computes the number of days between two dates (both inclusive) for which a charge will be levied
+     * @param rate The Rate whose charge rules apply
+     * @param from The first rental day
+     * @param to The last rental day
+     * @return The number of chargeable days in the given range
+     */
+    public static int count(final Rate rate, final LocalDate from, final LocalDate to) {
+        return count(rate, HolidayCalendar.standard(), from, to);
+    }
+
+    /**
+     * Computes the number of days between two dates (both inclusive) for which a charge will be levied
+     * @param rate The Rate whose charge rules apply
+     * @param calendar The HolidayCalendar deciding which days are observed holidays
+     * @param from The first rental day
+     * @param to The last rental day
+     * @return The number of chargeable days in the given range
+     */
+    public static int count(final Rate rate, final HolidayCalendar calendar, final LocalDate from, final LocalDate to) {
+        final long fromDay = from.toEpochDay();
+        final long toDay = to.toEpochDay();
+        if (toDay < fromDay) {
+            return 0;
+        }
+
+        long chargeable = countDaysOfWeek(fromDay, toDay, rate.chargeDayMask());
+
+        // Observed Holidays are only ever "un-charged" if they land on a day we would otherwise have charged for.
+        if (!rate.chargeForHolidays()) {
+            chargeable -= calendar.countBetween(from, to, rate.chargeDayMask());
+        }
+
+        return Math.toIntExact(chargeable);
+    }
+
+    /**
+     * Counts the days between two epoch days (both inclusive) falling on the selected days of the week
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @param dayMask Which days of the week to count. Bit 0 is Monday, bit 6 is Sunday.
+     * @return The number of selected days in the given range
+     */
+    static long countDaysOfWeek(final long fromDay, final long toDay, final int dayMask) {
+        final long length = toDay - fromDay + 1;
+        // Every whole week contains each selected day once.
+        final long wholeWeeks = length / 7;
+        // The leftover days form a run starting on the first day's day of the week, wrapping past Sunday.
+        final int start = (int) Math.floorMod(fromDay + EPOCH_DAY_MONDAY_OFFSET, 7);
+        final int run = ((1 << (int) (length % 7)) - 1) << start;
+        final int leftover = (run | (run >>> 7)) & ALL_DAYS;
+        return wholeWeeks * Integer.bitCount(dayMask) + Integer.bitCount(dayMask & leftover);
+    }
+}
@@ -9,13 +9,26 @@ import java.time.LocalDate;
  * @param rentalDays How many days to rent the tool for, must be at least 1.
  * @param discount Discount percentage applied to the overall rental cost (integer values 0-100)
  * @param checkoutDate Date when this checkout occurred
+ * @param region The id of the store region checked out in, which decides the holidays observed
  */
 public record Checkout(
         Tool tool,
         int rentalDays,
         int discount,
-        LocalDate checkoutDate
+        LocalDate checkoutDate,
+        String region
 ) {
+    /**
+     * Describes a checkout in the default region
+     * @param tool The Tool being checked out for rental
+     * @param rentalDays How many days to rent the tool for, must be at least 1.
+     * @param discount Discount percentage applied to the overall rental cost (integer values 0-100)
+     * @param checkoutDate Date when this checkout occurred
+     */
+    public Checkout(final Tool tool, final int rentalDays, final int discount, final LocalDate checkoutDate) {
+        this(tool, rentalDays, discount, checkoutDate, RegionCalendars.DEFAULT_REGION);
+    }
+
     public Checkout {
         if (null == tool) {
             throw new IllegalArgumentException("A checkout may not include a null Tool.");
@@ -23,6 +36,9 @@ public record Checkout(
         if (null == checkoutDate) {
             throw new IllegalArgumentException("A checkout may not include a null checkout date.");
         }
+        if (null == region) {
+            throw new IllegalArgumentException("A checkout may not include a null region.");
+        }
         if (rentalDays < 1) {
             throw new IllegalArgumentException("A tool must be rented for at least one day.");
         }
@@ -3,23 +3,27 @@ package net.mythoclast.tooltime.model;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.Month;
-import java.time.temporal.TemporalAdjusters;
 
 /**
  * Defines Holidays and provides some helper methods
  */
 public enum Holiday {
-    INDEPENDENCE_DAY(LocalDate.of(2020, Month.JULY, 4)),
+    INDEPENDENCE_DAY(new HolidayRule.FixedDate(Month.JULY, 4)),
 
-    // This is honestly mega jank. Since we only care about two Holidays, and Labor Day does not fall on a fixed day
-    // we give it a null LocalDate. The helper methods check for this case and handle Labor Day scenarios appropriately.
-    LABOR_DAY(null);
+    LABOR_DAY(new HolidayRule.NthWeekday(Month.SEPTEMBER, DayOfWeek.MONDAY, 1));
 
-    private final LocalDate date;
+    private final HolidayRule rule;
 
-    // Allows a Holiday to be initialized with a LocalDate, year disregarded
-    Holiday(final LocalDate date) {
-        this.date = date;
+    Holiday(final HolidayRule rule) {
+        this.rule = rule;
+    }
+
+    /**
+     * Returns the rule describing when this Holiday is observed
+     * @return The rule describing when this Holiday is observed
+     */
+    public HolidayRule getRule() {
+        return rule;
     }
 
     /**
@@ -34,32 +38,12 @@ public enum Holiday {
     }
 
     /**
-     * Returns the LocalDate that this Holiday is observed in the given year
+     * Returns the LocalDate that this Holiday is observed in the given year.
+     * Served from the standard HolidayCalendar, so the rule is only evaluated once per year.
      * @param year The year in which we want to find when this Holiday is observed
      * @return A LocalDate containing the observed incidence of this Holiday in the given year.
      */
     public LocalDate forYear(final int year) {
-        // If null == date, we're interested in Labor Day
-        if (null == date) {
-            // Starting from September 1 of the given year....
-            return LocalDate.of(
-                    year, Month.SEPTEMBER, 1
-            ).with(
-                    // Find when the first Monday is, and return its LocalDate.
-                    TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY)
-            );
-        }
-
-        // Otherwise, we're interested in Independence Day
-        final LocalDate actualIndependenceDay = LocalDate.of(year, Month.JULY, 4);
-        // If Independence Day in the given year is a Saturday, return a LocalDate of the previous Friday
-        if (actualIndependenceDay.getDayOfWeek() == DayOfWeek.SATURDAY) {
-            return actualIndependenceDay.with(TemporalAdjusters.previous(DayOfWeek.FRIDAY));
-        // If Independence Day in the given year is a Sunday, return a LocalDate of the subsequent Monday.
-        } else if (actualIndependenceDay.getDayOfWeek() == DayOfWeek.SUNDAY) {
-            return actualIndependenceDay.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
-        }
-        // Otherwise, just return a LocalDate of Independence Day
-        return actualIndependenceDay;
+        return LocalDate.ofEpochDay(HolidayCalendar.standard().observedEpochDay(ordinal(), year));
     }
 }
@@ -0,0 +1,191 @@
+package net.mythoclast.tooltime.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An index of the dates on which a set of HolidayRules are observed.
+ * The observed dates for each year are computed once, the first time that year is asked about, and then compiled
+ * into running counts per day of the year. Lookups are two array reads and a little bit arithmetic, never allocate,
+ * and cost the same however many rules a calendar has.
+ * <br>
+ * Instances are immutable aside from their lazily-filled year cache, and are safe to share between threads.
+ * Concurrent first lookups of the same year may both compute it; the results are identical and only one is kept.
+ */
+public final class HolidayCalendar {
+
+    /**
+     * Day-of-week mask (bit 0 is Monday, bit 6 is Sunday) selecting every day of the week
+     */
+    public static final int ALL_DAYS = 0b1111111;
+
+    // Years in this window are cached. Anything outside it is still answered correctly, just computed every time.
+    private static final int FIRST_CACHED_YEAR = 1900;
+    private static final int LAST_CACHED_YEAR = 2199;
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    // Per day-of-week byte lanes selected by each day-of-week mask, e.g. mask 0b101 selects lanes 0 and 2.
+    private static final long[] LANES = new long[ALL_DAYS + 1];
+
+    static {
+        for (int mask = 0; mask <= ALL_DAYS; mask++) {
+            for (int day = 0; day < 7; day++) {
+                if ((mask & (1 << day)) != 0) {
+                    LANES[mask] |= 0xFFL << (Byte.SIZE * day);
+                }
+            }
+        }
+    }
+
+    private static final HolidayCalendar STANDARD = new HolidayCalendar(
+        Arrays.stream(Holiday.values()).map(Holiday::getRule).toList()
+    );
+
+    private final int id = NEXT_ID.getAndIncrement();
+    private final HolidayRule[] rules;
+    private final AtomicReferenceArray<YearTable> years =
+        new AtomicReferenceArray<>(LAST_CACHED_YEAR - FIRST_CACHED_YEAR + 1);
+
+    /**
+     * Creates a HolidayCalendar observing the given rules
+     * @param rules The HolidayRules this calendar observes. May not be null or contain nulls.
+     */
+    public HolidayCalendar(final List<HolidayRule> rules) {
+        if (null == rules || rules.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("A holiday calendar may not include a null rule.");
+        }
+        this.rules = rules.toArray(HolidayRule[]::new);
+    }
+
+    /**
+     * Returns the calendar observing every Holiday
+     * @return The calendar observing every Holiday
+     */
+    public static HolidayCalendar standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Indicates if the given date is an observed holiday
+     * @param date The date to check
+     * @return True if a holiday is observed on the given date, otherwise false
+     */
+    public boolean isObserved(final LocalDate date) {
+        final long[] running = year(date.getYear()).running;
+        final int dayOfYear = date.getDayOfYear();
+        return running[dayOfYear] != running[dayOfYear - 1];
+    }
+
+    /**
+     * Counts observed holidays between two dates (both inclusive)
+     * @param from The first date of the range
+     * @param to The last date of the range
+     * @return The number of observed holidays in the given range
+     */
+    public int countBetween(final LocalDate from, final LocalDate to) {
+        return countBetween(from, to, ALL_DAYS);
+    }
+
+    /**
+     * Counts observed holidays between two dates (both inclusive) which fall on the selected days of the week
+     * @param from The first date of the range
+     * @param to The last date of the range
+     * @param dayMask Which days of the week to count holidays on. Bit 0 is Monday, bit 6 is Sunday.
+     * @return The number of observed holidays in the given range falling on a selected day of the week
+     */
+    public int countBetween(final LocalDate from, final LocalDate to, final int dayMask) {
+        final long fromDay = from.toEpochDay();
+        final long toDay = to.toEpochDay();
+        if (toDay < fromDay) {
+            return 0;
+        }
+        final int lastYear = to.getYear();
+        int count = 0;
+        for (int year = from.getYear(); year <= lastYear; year++) {
+            final long[] running = year(year).running;
+            final int first = year == from.getYear() ? from.getDayOfYear() - 1 : 0;
+            final int last = year == lastYear ? to.getDayOfYear() : running.length - 1;
+            // Lane counts only ever grow through the year, so lane-wise subtraction never borrows across lanes.
+            count += sumLanes((running[last] - running[first]) & LANES[dayMask & ALL_DAYS]);
+        }
+        return count;
+    }
+
+    /**
+     * Returns a number identifying this calendar among every calendar created in this JVM
+     * @return A number identifying this calendar, counting up from 0
+     */
+    int id() {
+        return id;
+    }
+
+    // Epoch day on which the rule at the given index is observed for the given year
+    long observedEpochDay(final int ruleIndex, final int year) {
+        return year(year).byRule[ruleIndex];
+    }
+
+    private YearTable year(final int year) {
+        if (year < FIRST_CACHED_YEAR || year > LAST_CACHED_YEAR) {
+            return new YearTable(rules, year);
+        }
+        final int index = year - FIRST_CACHED_YEAR;
+        final YearTable cached = years.get(index);
+        if (null != cached) {
+            return cached;
+        }
+        years.compareAndSet(index, null, new YearTable(rules, year));
+        return years.get(index);
+    }
+
+    // Adds up the eight byte lanes of a long. No lane exceeds 53, but together they can pass 255, so pairs of lanes
+    // are first folded into four 16-bit lanes, whose total always fits in the top 16 bits.
+    private static int sumLanes(final long lanes) {
+        final long pairs = (lanes & 0x00FF00FF00FF00FFL) + ((lanes >>> Byte.SIZE) & 0x00FF00FF00FF00FFL);
+        return (int) ((pairs * 0x0001000100010001L) >>> 48);
+    }
+
+    /**
+     * Everything observed in one calendar year. Built once, never modified.
+     */
+    private static final class YearTable {
+        // Epoch day each rule is observed on for this year, in rule order.
+        // A rule may be observed in an adjacent calendar year, e.g. January 1st on a Saturday is observed December 31st.
+        private final long[] byRule;
+        // Entry n holds how many holidays are observed on each day of the week in the first n days of this year,
+        // one byte lane per day of the week, lane 0 being Monday. A holiday is only counted once however many
+        // rules observe it.
+        private final long[] running;
+
+        private YearTable(final HolidayRule[] rules, final int year) {
+            byRule = new long[rules.length];
+            final long firstDay = LocalDate.of(year, 1, 1).toEpochDay();
+            final long lastDay = LocalDate.of(year, 12, 31).toEpochDay();
+            final long[] candidates = new long[rules.length * 3];
+            int found = 0;
+            for (int i = 0; i < rules.length; i++) {
+                byRule[i] = rules[i].observedIn(year).toEpochDay();
+                // Rules applied to neighbouring years can spill into this one, so check them too.
+                for (int y = year - 1; y <= year + 1; y++) {
+                    final long day = y == year ? byRule[i] : rules[i].observedIn(y).toEpochDay();
+                    if (day >= firstDay && day <= lastDay) {
+                        candidates[found++] = day;
+                    }
+                }
+            }
+            final long[] marks = new long[(int) (lastDay - firstDay) + 1];
+            for (int i = 0; i < found; i++) {
+                final int dayOfWeek = LocalDate.ofEpochDay(candidates[i]).getDayOfWeek().getValue() - 1;
+                marks[(int) (candidates[i] - firstDay)] = 1L << (Byte.SIZE * dayOfWeek);
+            }
+            running = new long[marks.length + 1];
+            for (int i = 0; i < marks.length; i++) {
+                running[i + 1] = running[i] + marks[i];
+            }
+        }
+    }
+}
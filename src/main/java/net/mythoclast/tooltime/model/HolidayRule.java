@@ -0,0 +1,104 @@
+package net.mythoclast.tooltime.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * Describes how to find the date a Holiday is observed on in a given year.
+ */
+public sealed interface HolidayRule {
+
+    /**
+     * Returns the LocalDate on which the Holiday described by this rule is observed in the given year
+     * @param year The year in which we want to find when the Holiday is observed
+     * @return A LocalDate containing the observed incidence of the Holiday in the given year.
+     */
+    LocalDate observedIn(int year);
+
+    /**
+     * Reads a rule from its text form, either a month and day for a FixedDate, e.g. {@code JULY 4}, or a month,
+     * day of the week and occurrence for an NthWeekday, e.g. {@code SEPTEMBER MONDAY 1} or {@code MAY MONDAY LAST}
+     * @param text The rule in text form. Case does not matter.
+     * @return The rule described by the text
+     */
+    static HolidayRule parse(final String text) {
+        final String[] words = text.trim().toUpperCase(Locale.ROOT).split("\\s+");
+        try {
+            if (words.length == 2) {
+                return new FixedDate(Month.valueOf(words[0]), Integer.parseInt(words[1]));
+            }
+            if (words.length == 3) {
+                return new NthWeekday(
+                    Month.valueOf(words[0]),
+                    DayOfWeek.valueOf(words[1]),
+                    words[2].equals("LAST") ? -1 : Integer.parseInt(words[2])
+                );
+            }
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException(STR."`\{text}` is not a holiday rule: \{e.getMessage()}", e);
+        }
+        throw new IllegalArgumentException(STR."`\{text}` is not a holiday rule.");
+    }
+
+    /**
+     * A Holiday falling on the same calendar date every year.
+     * When that date is a Saturday, the Holiday is observed on the previous Friday.
+     * When that date is a Sunday, the Holiday is observed on the subsequent Monday.
+     *
+     * @param month The month the Holiday falls in
+     * @param dayOfMonth The day of the month the Holiday falls on
+     */
+    record FixedDate(Month month, int dayOfMonth) implements HolidayRule {
+        public FixedDate {
+            if (null == month) {
+                throw new IllegalArgumentException("A fixed date Holiday may not have a null month.");
+            }
+            if (dayOfMonth < 1 || dayOfMonth > month.maxLength()) {
+                throw new IllegalArgumentException(STR."\{month} has no day \{dayOfMonth}.");
+            }
+        }
+
+        @Override
+        public LocalDate observedIn(final int year) {
+            final LocalDate actual = LocalDate.of(year, month, Math.min(dayOfMonth, month.length(Year.isLeap(year))));
+            return switch (actual.getDayOfWeek()) {
+                case SATURDAY -> actual.minusDays(1);
+                case SUNDAY -> actual.plusDays(1);
+                default -> actual;
+            };
+        }
+    }
+
+    /**
+     * A Holiday falling on the Nth occurrence of a given day of the week within a month,
+     * such as the first Monday of September.
+     *
+     * @param month The month the Holiday falls in
+     * @param dayOfWeek The day of the week the Holiday falls on
+     * @param ordinal Which occurrence of that day of the week, 1-4 from the start of the month, or -1 for the last
+     */
+    record NthWeekday(Month month, DayOfWeek dayOfWeek, int ordinal) implements HolidayRule {
+        public NthWeekday {
+            if (null == month) {
+                throw new IllegalArgumentException("An Nth weekday Holiday may not have a null month.");
+            }
+            if (null == dayOfWeek) {
+                throw new IllegalArgumentException("An Nth weekday Holiday may not have a null day of the week.");
+            }
+            if (ordinal != -1 && (ordinal < 1 || ordinal > 4)) {
+                throw new IllegalArgumentException(STR."Occurrence \{ordinal} must be 1-4, or -1 for the last.");
+            }
+        }
+
+        @Override
+        public LocalDate observedIn(final int year) {
+            return LocalDate.of(year, month, 1).with(TemporalAdjusters.dayOfWeekInMonth(ordinal, dayOfWeek));
+        }
+    }
+}
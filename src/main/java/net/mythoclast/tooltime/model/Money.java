@@ -0,0 +1,76 @@
+package net.mythoclast.tooltime.model;
+
+/**
+ * Exact arithmetic on amounts of money held as a long number of cents.
+ * <br>
+ * Amounts are plain longs rather than objects, so pricing never allocates to do its math. Every operation either
+ * gives the exact result or throws ArithmeticException on overflow, which a long of cents only reaches past
+ * ninety quadrillion dollars.
+ */
+public final class Money {
+
+    private static final int PERCENT = 100;
+
+    private Money() {
+    }
+
+    /**
+     * Multiplies an amount by a count, such as a daily rate by a number of days
+     * @param cents The amount, in cents
+     * @param count How many of the amount there are
+     * @return The total, in cents
+     * @throws ArithmeticException If the total does not fit in a long
+     */
+    public static long times(final long cents, final long count) {
+        return Math.multiplyExact(cents, count);
+    }
+
+    /**
+     * Adds two amounts
+     * @param cents The first amount, in cents
+     * @param moreCents The second amount, in cents
+     * @return The sum, in cents
+     * @throws ArithmeticException If the sum does not fit in a long
+     */
+    public static long plus(final long cents, final long moreCents) {
+        return Math.addExact(cents, moreCents);
+    }
+
+    /**
+     * Subtracts one amount from another
+     * @param cents The amount to subtract from, in cents
+     * @param lessCents The amount to subtract, in cents
+     * @return The difference, in cents
+     * @throws ArithmeticException If the difference does not fit in a long
+     */
+    public static long minus(final long cents, final long lessCents) {
+        return Math.subtractExact(cents, lessCents);
+    }
+
+    /**
+     * Takes a whole-number percentage of an amount, dropping any fraction of a cent.
+     * <br>
+     * Dropping the fraction, rather than rounding it, is how discounts have always been priced: 10% of $2.98 is $0.29.
+     * The result is exact for every amount, with no intermediate that can overflow.
+     * @param cents The amount, in cents
+     * @param percent The percentage to take, from 0 to 100
+     * @return The percentage of the amount, in whole cents, rounded toward zero
+     */
+    public static long percentOf(final long cents, final int percent) {
+        if (percent < 0 || percent > PERCENT) {
+            throw new IllegalArgumentException("A percentage must be between 0 and 100.");
+        }
+        // cents = whole * 100 + part, so cents * percent / 100 = whole * percent + part * percent / 100,
+        // where whole * percent never exceeds cents and part * percent never exceeds 9900.
+        return cents / PERCENT * percent + cents % PERCENT * percent / PERCENT;
+    }
+
+    /**
+     * Formats an amount as US dollars, e.g. 123456 becomes $1,234.56
+     * @param cents The amount to format, in cents
+     * @return The formatted amount
+     */
+    public static String format(final long cents) {
+        return ReportWriter.appendDollars(cents, new StringBuilder(16)).toString();
+    }
+}
@@ -0,0 +1,160 @@
+package net.mythoclast.tooltime.model;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * An open-addressing hash table from packed Tool code keys to Tools, split into independently-locked stripes.
+ * <br>
+ * Keys live in a flat long array probed linearly, so a lookup never boxes a key or hashes a String.
+ * Reads are optimistic and only fall back to a read lock when they overlap a write to the same stripe.
+ */
+final class PackedToolTable {
+
+    private static final int STRIPES = 64;
+    private static final int MIN_STRIPE_CAPACITY = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    PackedToolTable(final int expectedTools) {
+        final int perStripe = Math.max(MIN_STRIPE_CAPACITY, expectedTools / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Associates a Tool with a key, unless the key is already associated with one
+     * @param key A packed Tool code, never {@link ToolCodes#UNPACKABLE}
+     * @param tool The Tool to associate with the key
+     * @return True if the Tool was associated with the key, false if a Tool already was
+     */
+    boolean putIfAbsent(final long key, final Tool tool) {
+        final long hash = mix(key);
+        return stripes[stripeOf(hash)].putIfAbsent(key, hash, tool);
+    }
+
+    /**
+     * Finds the Tool associated with a key
+     * @param key A packed Tool code
+     * @return The Tool associated with the key, or null if there is none
+     */
+    Tool get(final long key) {
+        final long hash = mix(key);
+        return stripes[stripeOf(hash)].get(key, hash);
+    }
+
+    int size() {
+        int size = 0;
+        for (final Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    // Packed keys of similar codes differ only in their low digits, so spread them across all bits first.
+    private static long mix(final long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    private static int stripeOf(final long hash) {
+        return (int) (hash >>> 58);
+    }
+
+    private static final class Stripe {
+        private final StampedLock lock = new StampedLock();
+        // Growing replaces the whole Slots, never resizes arrays in place, so a reader always sees matching arrays.
+        private Slots slots;
+        private volatile int size;
+
+        private Stripe(final int expected) {
+            // Keep the load factor at or below one half so probe sequences stay short.
+            final int capacity = Integer.highestOneBit(Math.max(MIN_STRIPE_CAPACITY, expected) * 2 - 1) << 1;
+            slots = new Slots(new long[capacity], new Tool[capacity]);
+        }
+
+        private Tool get(final long key, final long hash) {
+            final long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                final Tool found = probe(slots, key, hash);
+                if (lock.validate(stamp)) {
+                    return found;
+                }
+            }
+            final long readStamp = lock.readLock();
+            try {
+                return probe(slots, key, hash);
+            } finally {
+                lock.unlockRead(readStamp);
+            }
+        }
+
+        private boolean putIfAbsent(final long key, final long hash, final Tool tool) {
+            final long stamp = lock.writeLock();
+            try {
+                final long[] keys = slots.keys();
+                final Tool[] values = slots.values();
+                final int mask = keys.length - 1;
+                int slot = (int) hash & mask;
+                while (keys[slot] != ToolCodes.UNPACKABLE) {
+                    if (keys[slot] == key) {
+                        return false;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = tool;
+                size++;
+                if (size * 2 > keys.length) {
+                    grow();
+                }
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void grow() {
+            final long[] oldKeys = slots.keys();
+            final Tool[] oldValues = slots.values();
+            final long[] newKeys = new long[oldKeys.length * 2];
+            final Tool[] newValues = new Tool[oldKeys.length * 2];
+            final int mask = newKeys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != ToolCodes.UNPACKABLE) {
+                    int slot = (int) mix(oldKeys[i]) & mask;
+                    while (newKeys[slot] != ToolCodes.UNPACKABLE) {
+                        slot = (slot + 1) & mask;
+                    }
+                    newKeys[slot] = oldKeys[i];
+                    newValues[slot] = oldValues[i];
+                }
+            }
+            slots = new Slots(newKeys, newValues);
+        }
+
+        // An optimistic reader may see a table mid-write. It only ever reads within array bounds, and
+        // whatever it finds is discarded unless the stamp validates afterward.
+        private static Tool probe(final Slots slots, final long key, final long hash) {
+            final long[] keys = slots.keys();
+            final Tool[] values = slots.values();
+            final int mask = keys.length - 1;
+            int slot = (int) hash & mask;
+            for (int probes = 0; probes < keys.length; probes++) {
+                final long candidate = keys[slot];
+                if (candidate == key) {
+                    return values[slot];
+                }
+                if (candidate == ToolCodes.UNPACKABLE) {
+                    return null;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+    }
+
+    // Keys and values of one stripe, always the same length. A key of UNPACKABLE marks an empty slot.
+    private record Slots(long[] keys, Tool[] values) {
+    }
+}
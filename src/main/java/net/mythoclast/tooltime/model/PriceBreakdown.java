@@ -0,0 +1,124 @@
+package net.mythoclast.tooltime.model;
+
+import net.mythoclast.tooltime.metrics.PricingMetrics;
+import net.mythoclast.tooltime.metrics.PricingStage;
+
+import java.time.LocalDate;
+
+/**
+ * The computed pricing of a Checkout. Produced once per RentalAgreement and never modified afterward.
+ *
+ * @param dueDate The date the Tool is due back
+ * @param dailyRentalCents The daily rental price the Checkout was priced at, in cents
+ * @param chargeableDays How many days in the rental period a charge is levied for
+ * @param preDiscountCents The rental charge before discount, in cents
+ * @param promotionPercent The discount percentage Promotions added to the one entered on the Checkout
+ * @param discountCents The amount of the rental discount, in cents
+ * @param finalCents The rental charge after discount, in cents
+ */
+public record PriceBreakdown(
+        LocalDate dueDate,
+        long dailyRentalCents,
+        int chargeableDays,
+        long preDiscountCents,
+        int promotionPercent,
+        long discountCents,
+        long finalCents
+) {
+    public PriceBreakdown {
+        if (null == dueDate) {
+            throw new IllegalArgumentException("A price breakdown may not include a null due date.");
+        }
+        if (promotionPercent < 0 || promotionPercent > Promotions.MAX_PERCENT) {
+            throw new IllegalArgumentException("A promotion percentage must be between 0% and 100%.");
+        }
+    }
+
+    /**
+     * Prices the given Checkout at the discount entered on it, without promotions
+     * @param checkout The Checkout to price
+     * @return The computed pricing of the given Checkout
+     */
+    public static PriceBreakdown of(final Checkout checkout) {
+        return of(checkout, Promotions.none());
+    }
+
+    /**
+     * Prices the given Checkout, stacking the Promotions applying to it on the discount entered on it
+     * @param checkout The Checkout to price
+     * @param promotions The Promotions to evaluate against the Checkout
+     * @return The computed pricing of the given Checkout
+     */
+    public static PriceBreakdown of(final Checkout checkout, final Promotions promotions) {
+        // The -1 is here because this implementation considers the checkout day the first rental day,
+        // Just using plusDays directly results in the due date being too far ahead by one day.
+        final LocalDate dueDate = checkout.checkoutDate().plusDays(checkout.rentalDays() - 1);
+        // Read the Rate once, so a reload part way through can't price one Checkout with two different snapshots.
+        // The whole rental is priced at the version in effect on the checkout date.
+        final Rate rate = checkout.tool().type().getRate(checkout.checkoutDate());
+        final HolidayCalendar calendar = RegionCalendars.defaultRegions().forRegion(checkout.region());
+        final long started = PricingMetrics.start();
+        final int chargeableDays = QuoteCache.shared().chargeableDays(
+                rate, calendar, checkout.checkoutDate(), checkout.rentalDays()
+        );
+        final long counted = PricingMetrics.stop(
+                PricingStage.CHARGEABLE_DAYS, checkout.tool().code(), checkout.rentalDays(), started
+        );
+        final long preDiscountCents = Money.times(rate.cents(), chargeableDays);
+        final int promotionPercent = promotions.promotionPercentFor(checkout);
+        final long discountCents = Money.percentOf(preDiscountCents, checkout.discount() + promotionPercent);
+        PricingMetrics.stop(PricingStage.DISCOUNT, checkout.tool().code(), checkout.rentalDays(), counted);
+        return new PriceBreakdown(
+                dueDate,
+                rate.cents(),
+                chargeableDays,
+                preDiscountCents,
+                promotionPercent,
+                discountCents,
+                Money.minus(preDiscountCents, discountCents)
+        );
+    }
+
+    /**
+     * Reprices this breakdown for a rental of the same Checkout lasting a different number of days, counting only the
+     * days added or removed. The daily rate this breakdown was priced at is kept. Promotions are evaluated afresh
+     * against the amended length, and the discount is recomputed on the new total so rounding matches pricing the
+     * amended rental from scratch.
+     * @param checkout The Checkout this breakdown priced
+     * @param rentalDays The amended number of rental days. Must be at least one.
+     * @param promotions The Promotions to evaluate against the amended rental
+     * @return The pricing of the amended rental
+     */
+    public PriceBreakdown withRentalDays(final Checkout checkout, final int rentalDays, final Promotions promotions) {
+        if (rentalDays < 1) {
+            throw new IllegalArgumentException("A tool must be rented for at least one day.");
+        }
+        final LocalDate amendedDueDate = checkout.checkoutDate().plusDays(rentalDays - 1);
+        final Rate rate = checkout.tool().type().getRate(checkout.checkoutDate());
+        final HolidayCalendar calendar = RegionCalendars.defaultRegions().forRegion(checkout.region());
+        final int amendedChargeableDays;
+        if (amendedDueDate.isAfter(dueDate)) {
+            amendedChargeableDays = chargeableDays
+                    + ChargeableDays.count(rate, calendar, dueDate.plusDays(1), amendedDueDate);
+        } else {
+            amendedChargeableDays = chargeableDays
+                    - ChargeableDays.count(rate, calendar, amendedDueDate.plusDays(1), dueDate);
+        }
+        final long amendedPreDiscountCents = Money.times(dailyRentalCents, amendedChargeableDays);
+        final int amendedPromotionPercent = promotions.promotionPercentFor(new Checkout(
+                checkout.tool(), rentalDays, checkout.discount(), checkout.checkoutDate(), checkout.region()
+        ));
+        final long amendedDiscountCents = Money.percentOf(
+                amendedPreDiscountCents, checkout.discount() + amendedPromotionPercent
+        );
+        return new PriceBreakdown(
+                amendedDueDate,
+                dailyRentalCents,
+                amendedChargeableDays,
+                amendedPreDiscountCents,
+                amendedPromotionPercent,
+                amendedDiscountCents,
+                Money.minus(amendedPreDiscountCents, amendedDiscountCents)
+        );
+    }
+}
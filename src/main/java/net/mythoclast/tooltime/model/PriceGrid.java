@@ -0,0 +1,126 @@
+package net.mythoclast.tooltime.model;
+
+import java.time.LocalDate;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * Final rental charges for one ToolType over a range of start dates and a range of rental lengths,
+ * as produced by {@link QuoteMatrix#grid(ToolType, LocalDate, int, int, int, int)}.
+ * <br>
+ * Charges are held in one flat array, a row of rental lengths per start date.
+ */
+public final class PriceGrid {
+
+    private final ToolType toolType;
+    private final LocalDate firstStart;
+    private final int starts;
+    private final int minDays;
+    private final int lengths;
+    private final int discount;
+    private final long[] finalCents;
+
+    PriceGrid(
+        final ToolType toolType,
+        final LocalDate firstStart,
+        final int starts,
+        final int minDays,
+        final int lengths,
+        final int discount,
+        final long[] finalCents
+    ) {
+        this.toolType = toolType;
+        this.firstStart = firstStart;
+        this.starts = starts;
+        this.minDays = minDays;
+        this.lengths = lengths;
+        this.discount = discount;
+        this.finalCents = finalCents;
+    }
+
+    /**
+     * Returns the ToolType this grid prices
+     * @return The ToolType this grid prices
+     */
+    public ToolType getToolType() {
+        return toolType;
+    }
+
+    /**
+     * Returns the earliest start date in this grid
+     * @return The earliest start date in this grid
+     */
+    public LocalDate getFirstStart() {
+        return firstStart;
+    }
+
+    /**
+     * Returns how many consecutive start dates this grid covers
+     * @return How many consecutive start dates this grid covers
+     */
+    public int getStarts() {
+        return starts;
+    }
+
+    /**
+     * Returns the shortest rental length in this grid
+     * @return The shortest rental length in this grid, in days
+     */
+    public int getMinDays() {
+        return minDays;
+    }
+
+    /**
+     * Returns the longest rental length in this grid
+     * @return The longest rental length in this grid, in days
+     */
+    public int getMaxDays() {
+        return minDays + lengths - 1;
+    }
+
+    /**
+     * Returns the discount percentage applied to every charge in this grid
+     * @return The discount percentage applied to every charge in this grid
+     */
+    public int getDiscountPercent() {
+        return discount;
+    }
+
+    /**
+     * Returns the final charge for one start date and rental length
+     * @param start The first rental day
+     * @param rentalDays How many days the rental lasts
+     * @return The final charge, in cents
+     */
+    public long getFinalCents(final LocalDate start, final int rentalDays) {
+        final long row = start.toEpochDay() - firstStart.toEpochDay();
+        if (row < 0 || row >= starts) {
+            throw new IllegalArgumentException(STR."\{start} is not a start date in this grid.");
+        }
+        return finalCents[(int) row * lengths + column(rentalDays)];
+    }
+
+    /**
+     * Finds the start date with the lowest final charge for a rental length, the earliest one if several tie
+     * @param rentalDays How many days the rental lasts
+     * @return The cheapest start date
+     */
+    public LocalDate getCheapestStart(final int rentalDays) {
+        final int column = column(rentalDays);
+        int cheapest = 0;
+        for (int row = 1; row < starts; row++) {
+            if (finalCents[row * lengths + column] < finalCents[cheapest * lengths + column]) {
+                cheapest = row;
+            }
+        }
+        return firstStart.plusDays(cheapest);
+    }
+
+    private int column(final int rentalDays) {
+        final int column = rentalDays - minDays;
+        if (column < 0 || column >= lengths) {
+            throw new IllegalArgumentException(STR."\{rentalDays} days is not a rental length in this grid.");
+        }
+        return column;
+    }
+}
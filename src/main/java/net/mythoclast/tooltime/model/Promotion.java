@@ -0,0 +1,87 @@
+package net.mythoclast.tooltime.model;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * Describes a promotion, a percentage taken off every Checkout meeting all of its conditions.
+ *
+ * @param name The name of the promotion. May not be null or blank.
+ * @param percent The percentage the promotion takes off, 1-100
+ * @param toolTypes The ToolTypes the promotion applies to. May not be null or empty.
+ * @param checkoutDayMask The days of the week the Checkout must be made on. Bit 0 is Monday, bit 6 is Sunday.
+ * @param minRentalDays The fewest rental days the promotion applies to
+ * @param maxRentalDays The most rental days the promotion applies to
+ * @param from The first checkout date the promotion applies to, or null if it has no start
+ * @param until The last checkout date the promotion applies to, or null if it has no end
+ */
+public record Promotion(
+        String name,
+        int percent,
+        Set<ToolType> toolTypes,
+        int checkoutDayMask,
+        int minRentalDays,
+        int maxRentalDays,
+        LocalDate from,
+        LocalDate until
+) {
+    public Promotion {
+        if (null == name || name.isBlank()) {
+            throw new IllegalArgumentException("A promotion may not have a null or blank name.");
+        }
+        if (percent < 1 || percent > 100) {
+            throw new IllegalArgumentException(STR."Promotion `\{name}` must take off 1-100%, not \{percent}%.");
+        }
+        if (null == toolTypes || toolTypes.isEmpty()) {
+            throw new IllegalArgumentException(STR."Promotion `\{name}` must apply to at least one tool type.");
+        }
+        if (checkoutDayMask == 0 || (checkoutDayMask & ~(Rate.WEEKDAYS | Rate.WEEKENDS)) != 0) {
+            throw new IllegalArgumentException(STR."Promotion `\{name}` must apply on at least one day of the week.");
+        }
+        if (minRentalDays < 1 || maxRentalDays < minRentalDays) {
+            throw new IllegalArgumentException(
+                STR."Promotion `\{name}` has no rental lengths between \{minRentalDays} and \{maxRentalDays} days."
+            );
+        }
+        if (null != from && null != until && until.isBefore(from)) {
+            throw new IllegalArgumentException(STR."Promotion `\{name}` ends before it starts.");
+        }
+        toolTypes = Set.copyOf(toolTypes);
+    }
+
+    /**
+     * Creates a promotion taking the given percentage off every Checkout
+     * @param name The name of the promotion
+     * @param percent The percentage the promotion takes off, 1-100
+     */
+    public Promotion(final String name, final int percent) {
+        this(
+            name,
+            percent,
+            EnumSet.allOf(ToolType.class),
+            Rate.WEEKDAYS | Rate.WEEKENDS,
+            1,
+            Integer.MAX_VALUE,
+            null,
+            null
+        );
+    }
+
+    /**
+     * Indicates if this promotion applies to the given Checkout
+     * @param checkout The Checkout to check
+     * @return True if the Checkout meets every condition of this promotion, otherwise false
+     */
+    public boolean appliesTo(final Checkout checkout) {
+        final LocalDate date = checkout.checkoutDate();
+        return toolTypes.contains(checkout.tool().type())
+            && (checkoutDayMask & Rate.maskOf(date.getDayOfWeek())) != 0
+            && checkout.rentalDays() >= minRentalDays
+            && checkout.rentalDays() <= maxRentalDays
+            && (null == from || !date.isBefore(from))
+            && (null == until || !date.isAfter(until));
+    }
+}
@@ -0,0 +1,324 @@
+package net.mythoclast.tooltime.model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * An immutable, compiled set of Promotions, stacked on top of the discount entered on each Checkout.
+ * <br>
+ * Promotions are compiled once into a flat chain per ToolType, holding only the promotions for that type with
+ * their conditions laid out in parallel primitive arrays. Evaluating a Checkout walks the chain for its ToolType,
+ * testing every condition of every link without branching on any one of them, so the cost is a short, fixed amount
+ * per promotion and does not depend on which promotions match. Percentages add up, and the total discount is capped
+ * at 100%.
+ * <br>
+ * As with the RateTable, one set is current at any time and installing a new one swaps it in atomically.
+ * Promotions are read from a properties file keyed by promotion name. Only percent is required.
+ * <pre>
+ * WEEKDAY_LADDERS.percent=10
+ * WEEKDAY_LADDERS.toolTypes=LADDER
+ * WEEKDAY_LADDERS.checkoutDays=WEEKDAYS
+ * LONG_RENTAL.percent=5
+ * LONG_RENTAL.minDays=7
+ * SUMMER_SAWS.percent=15
+ * SUMMER_SAWS.toolTypes=CHAINSAW
+ * SUMMER_SAWS.from=2024-06-01
+ * SUMMER_SAWS.until=2024-08-31
+ * </pre>
+ * toolTypes is a comma-separated list of ToolType names, and checkoutDays takes the same form as a Rate's chargeDays.
+ * maxDays, from and until may also be given. If the system property {@code tooltime.promotions} names a file when
+ * promotions are first used, it is loaded in place of the empty set.
+ */
+public final class Promotions {
+
+    /**
+     * System property naming a promotions file to load at startup
+     */
+    public static final String PROMOTIONS_PROPERTY = "tooltime.promotions";
+
+    /**
+     * The highest total discount percentage, however many promotions stack
+     */
+    public static final int MAX_PERCENT = 100;
+
+    private static final Promotions NONE = compile(List.of());
+
+    private static final AtomicReference<Promotions> CURRENT = new AtomicReference<>(initial());
+
+    private final List<Promotion> promotions;
+
+    // Indexed by ToolType ordinal.
+    private final Chain[] chains;
+
+    private Promotions(final List<Promotion> promotions, final Chain[] chains) {
+        this.promotions = promotions;
+        this.chains = chains;
+    }
+
+    /**
+     * Returns the promotions currently used for pricing
+     * @return The promotions currently used for pricing
+     */
+    public static Promotions current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes the given promotions the ones used for pricing from now on
+     * @param promotions The promotions to price with. May not be null.
+     * @return The promotions that were previously current
+     */
+    public static Promotions install(final Promotions promotions) {
+        if (null == promotions) {
+            throw new IllegalArgumentException("A null set of promotions may not be installed.");
+        }
+        return CURRENT.getAndSet(promotions);
+    }
+
+    /**
+     * Returns the set holding no promotions
+     * @return The set holding no promotions
+     */
+    public static Promotions none() {
+        return NONE;
+    }
+
+    /**
+     * Compiles the given promotions into per-ToolType chains
+     * @param promotions The promotions to compile. May not contain null.
+     * @return The compiled promotions
+     */
+    public static Promotions compile(final Collection<Promotion> promotions) {
+        final List<Promotion> all = List.copyOf(promotions);
+        final ToolType[] types = ToolType.values();
+        final Chain[] chains = new Chain[types.length];
+        for (final ToolType type : types) {
+            final List<Promotion> applicable = new ArrayList<>();
+            for (final Promotion promotion : all) {
+                if (promotion.toolTypes().contains(type)) {
+                    applicable.add(promotion);
+                }
+            }
+            chains[type.ordinal()] = new Chain(applicable);
+        }
+        return new Promotions(all, chains);
+    }
+
+    /**
+     * Reads promotions from a promotions file
+     * @param path The promotions file to read
+     * @return The compiled promotions described by the file
+     * @throws IOException If the file cannot be read
+     */
+    public static Promotions load(final Path path) throws IOException {
+        try (final Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Reads promotions in properties form
+     * @param reader Where to read the promotions from
+     * @return The compiled promotions, in name order
+     * @throws IOException If the promotions cannot be read
+     */
+    public static Promotions parse(final Reader reader) throws IOException {
+        final Properties properties = new Properties();
+        properties.load(reader);
+        final Set<String> names = new TreeSet<>();
+        for (final String key : properties.stringPropertyNames()) {
+            final int dot = key.lastIndexOf('.');
+            if (dot <= 0 || !isField(key.substring(dot + 1))) {
+                throw new IllegalArgumentException(STR."Unrecognized promotion property `\{key}`.");
+            }
+            names.add(key.substring(0, dot));
+        }
+
+        final List<Promotion> promotions = new ArrayList<>(names.size());
+        for (final String name : names) {
+            final String prefix = name + ".";
+            final String percent = properties.getProperty(prefix + "percent");
+            if (null == percent) {
+                throw new IllegalArgumentException(STR."Promotion `\{name}` has no percent.");
+            }
+            promotions.add(new Promotion(
+                name,
+                parseInt(percent, 0),
+                parseToolTypes(properties.getProperty(prefix + "toolTypes")),
+                RateTable.parseDays(properties.getProperty(prefix + "checkoutDays"), Rate.WEEKDAYS | Rate.WEEKENDS),
+                parseInt(properties.getProperty(prefix + "minDays"), 1),
+                parseInt(properties.getProperty(prefix + "maxDays"), Integer.MAX_VALUE),
+                parseDate(properties.getProperty(prefix + "from")),
+                parseDate(properties.getProperty(prefix + "until"))
+            ));
+        }
+        return compile(promotions);
+    }
+
+    /**
+     * Returns every promotion in this set
+     * @return Every promotion in this set
+     */
+    public List<Promotion> promotions() {
+        return promotions;
+    }
+
+    /**
+     * Computes the percentage the promotions applying to the given Checkout add to its own discount, no more than
+     * takes the total to {@value #MAX_PERCENT}
+     * @param checkout The Checkout to evaluate
+     * @return The percentage the promotions add to the Checkout's discount
+     */
+    public int promotionPercentFor(final Checkout checkout) {
+        final int promoted = chains[checkout.tool().type().ordinal()].percentFor(checkout);
+        return Math.min(MAX_PERCENT - checkout.discount(), promoted);
+    }
+
+    /**
+     * Computes the total percentage taken off the given Checkout: its own discount plus every promotion applying to
+     * it, capped at {@value #MAX_PERCENT}
+     * @param checkout The Checkout to evaluate
+     * @return The total discount percentage of the Checkout
+     */
+    public int discountFor(final Checkout checkout) {
+        return checkout.discount() + promotionPercentFor(checkout);
+    }
+
+    /**
+     * Returns the promotions applying to the given Checkout, for explaining its discount
+     * @param checkout The Checkout to evaluate
+     * @return The promotions applying to the given Checkout, in the order they were compiled
+     */
+    public List<Promotion> applicableTo(final Checkout checkout) {
+        return chains[checkout.tool().type().ordinal()].applicableTo(checkout);
+    }
+
+    private static Promotions initial() {
+        final String configured = System.getProperty(PROMOTIONS_PROPERTY);
+        if (null == configured) {
+            return NONE;
+        }
+        try {
+            return load(Path.of(configured));
+        } catch (final IOException e) {
+            throw new IllegalStateException(STR."Promotions file `\{configured}` could not be read.", e);
+        }
+    }
+
+    private static boolean isField(final String field) {
+        return switch (field) {
+            case "percent", "toolTypes", "checkoutDays", "minDays", "maxDays", "from", "until" -> true;
+            default -> false;
+        };
+    }
+
+    private static int parseInt(final String value, final int fallback) {
+        if (null == value) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException(STR."`\{value}` is not a whole number.", e);
+        }
+    }
+
+    private static Set<ToolType> parseToolTypes(final String value) {
+        if (null == value) {
+            return EnumSet.allOf(ToolType.class);
+        }
+        final Set<ToolType> types = EnumSet.noneOf(ToolType.class);
+        for (final String type : value.split(",")) {
+            try {
+                types.add(ToolType.valueOf(type.trim().toUpperCase(Locale.ROOT)));
+            } catch (final IllegalArgumentException e) {
+                throw new IllegalArgumentException(STR."`\{type.trim()}` is not a tool type.", e);
+            }
+        }
+        return types;
+    }
+
+    private static LocalDate parseDate(final String value) {
+        if (null == value) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (final DateTimeException e) {
+            throw new IllegalArgumentException(STR."`\{value}` is not a yyyy-MM-dd date.", e);
+        }
+    }
+
+    /**
+     * The promotions for one ToolType, their conditions laid out side by side
+     */
+    private static final class Chain {
+
+        private final Promotion[] promotions;
+        private final int[] percents;
+        private final int[] dayMasks;
+        private final int[] minDays;
+        private final int[] maxDays;
+        // Open ends are stored as the furthest epoch days, so every link tests both bounds.
+        private final long[] fromDays;
+        private final long[] untilDays;
+
+        private Chain(final List<Promotion> applicable) {
+            promotions = applicable.toArray(Promotion[]::new);
+            final int length = promotions.length;
+            percents = new int[length];
+            dayMasks = new int[length];
+            minDays = new int[length];
+            maxDays = new int[length];
+            fromDays = new long[length];
+            untilDays = new long[length];
+            for (int i = 0; i < length; i++) {
+                final Promotion promotion = promotions[i];
+                percents[i] = promotion.percent();
+                dayMasks[i] = promotion.checkoutDayMask();
+                minDays[i] = promotion.minRentalDays();
+                maxDays[i] = promotion.maxRentalDays();
+                fromDays[i] = null == promotion.from() ? Long.MIN_VALUE : promotion.from().toEpochDay();
+                untilDays[i] = null == promotion.until() ? Long.MAX_VALUE : promotion.until().toEpochDay();
+            }
+        }
+
+        private int percentFor(final Checkout checkout) {
+            final long epochDay = checkout.checkoutDate().toEpochDay();
+            final int dayBit = Rate.maskOf(checkout.checkoutDate().getDayOfWeek());
+            final int rentalDays = checkout.rentalDays();
+            int total = 0;
+            for (int i = 0; i < percents.length; i++) {
+                // Non-short-circuit &, so every condition is tested and the only branch is the loop's.
+                final boolean applies = (dayMasks[i] & dayBit) != 0
+                    & rentalDays >= minDays[i]
+                    & rentalDays <= maxDays[i]
+                    & epochDay >= fromDays[i]
+                    & epochDay <= untilDays[i];
+                total += applies ? percents[i] : 0;
+            }
+            return total;
+        }
+
+        private List<Promotion> applicableTo(final Checkout checkout) {
+            return Arrays.stream(promotions).filter(promotion -> promotion.appliesTo(checkout)).toList();
+        }
+    }
+}
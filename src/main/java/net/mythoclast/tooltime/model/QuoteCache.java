@@ -0,0 +1,361 @@
+package net.mythoclast.tooltime.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A bounded cache of chargeable day counts, keyed by charge rules, holiday calendar, checkout date and rental length.
+ * <br>
+ * The key packs the charge-day mask and holiday flag of the Rate, the id of the HolidayCalendar, the checkout
+ * epoch day and the rental length into one long, so neither a lookup nor a hit allocates. Keying on the charge
+ * rules rather than the ToolType means reloading rates can never serve a stale count: a Rate whose rules changed
+ * simply has a different key. Calendars are immutable, so a region switching to a new calendar does the same, and
+ * calendars of different regions share the cache without disturbing each other.
+ * <br>
+ * Entries live in independently-locked stripes of fixed size. A full stripe evicts its least recently used entry
+ * under {@link Policy#LRU}, or its oldest under {@link Policy#FIFO}, whose hits need no more than an optimistic read.
+ * Checkouts more than about 2,800 years from 1970 or longer than about 179 years, and calendars beyond the first
+ * half million created, are not cached, only counted.
+ */
+public final class QuoteCache {
+
+    /**
+     * Which entry a full cache makes room by evicting
+     */
+    public enum Policy {
+        /**
+         * The entry least recently read or written
+         */
+        LRU,
+        /**
+         * The entry least recently written
+         */
+        FIFO
+    }
+
+    /**
+     * What a cache has done since it was created.
+     *
+     * @param hits How many lookups were answered from the cache
+     * @param misses How many lookups had to count chargeable days
+     * @param evictions How many entries were dropped to make room for others
+     * @param invalidations How many times the whole cache was emptied by {@link #invalidate()}
+     * @param size How many entries the cache holds
+     */
+    public record Stats(long hits, long misses, long evictions, long invalidations, int size) {
+    }
+
+    /**
+     * The system property giving the size of the shared cache. 0 turns it off.
+     */
+    public static final String SIZE_PROPERTY = "tooltime.quoteCache.size";
+
+    /**
+     * The system property giving the eviction policy of the shared cache, LRU or FIFO
+     */
+    public static final String POLICY_PROPERTY = "tooltime.quoteCache.policy";
+
+    private static final int DEFAULT_SIZE = 8192;
+    private static final int MAX_STRIPES = 16;
+    private static final int MIN_STRIPE_ENTRIES = 64;
+    private static final int MISS = -1;
+    private static final long UNCACHEABLE = 0L;
+    private static final int RENTAL_DAYS_BITS = 16;
+    private static final int EPOCH_DAY_BITS = 21;
+    private static final int CALENDAR_BITS = 19;
+    private static final int HOLIDAY_RULE_BIT = 0x80;
+
+    private static final QuoteCache SHARED = new QuoteCache(
+        Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE),
+        Policy.valueOf(System.getProperty(POLICY_PROPERTY, Policy.LRU.name()).trim().toUpperCase(Locale.ROOT))
+    );
+
+    private final Policy policy;
+    private final Stripe[] stripes;
+    private final int stripeShift;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Creates an empty cache
+     * @param maxEntries The most entries the cache may hold. 0 creates a cache that never holds any.
+     * @param policy Which entry a full cache evicts
+     */
+    public QuoteCache(final int maxEntries, final Policy policy) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("A quote cache may not hold a negative number of entries.");
+        }
+        if (null == policy) {
+            throw new IllegalArgumentException("A quote cache may not have a null eviction policy.");
+        }
+        this.policy = policy;
+        final int stripeCount = maxEntries == 0 ? 0
+            : Math.min(MAX_STRIPES, Math.max(1, Integer.highestOneBit(maxEntries / MIN_STRIPE_ENTRIES)));
+        stripes = new Stripe[stripeCount];
+        stripeShift = Long.SIZE - Integer.numberOfTrailingZeros(Math.max(1, stripeCount));
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe((maxEntries + stripeCount - 1) / stripeCount);
+        }
+    }
+
+    /**
+     * Returns the cache shared by all pricing, sized and configured by system properties
+     * @return The cache shared by all pricing
+     */
+    public static QuoteCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the number of chargeable days in a rental, from the cache if possible
+     * @param rate The Rate whose charge rules apply
+     * @param calendar The HolidayCalendar deciding which days are observed holidays
+     * @param checkoutDate The first rental day
+     * @param rentalDays How many days the rental lasts, at least 1
+     * @return The number of chargeable days in the rental
+     */
+    public int chargeableDays(
+        final Rate rate,
+        final HolidayCalendar calendar,
+        final LocalDate checkoutDate,
+        final int rentalDays
+    ) {
+        final long key = keyOf(rate, calendar, checkoutDate, rentalDays);
+        if (key == UNCACHEABLE || stripes.length == 0) {
+            return ChargeableDays.count(rate, calendar, checkoutDate, checkoutDate.plusDays(rentalDays - 1));
+        }
+        final long hash = mix(key);
+        final Stripe stripe = stripes[stripeOf(hash)];
+        final int cached = stripe.get(key, hash);
+        if (cached != MISS) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        final int counted = ChargeableDays.count(rate, calendar, checkoutDate, checkoutDate.plusDays(rentalDays - 1));
+        stripe.put(key, hash, counted);
+        return counted;
+    }
+
+    /**
+     * Empties the cache
+     */
+    public void invalidate() {
+        for (final Stripe stripe : stripes) {
+            stripe.clear();
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * Returns what this cache has done since it was created
+     * @return What this cache has done since it was created
+     */
+    public Stats stats() {
+        int size = 0;
+        for (final Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), size);
+    }
+
+    /**
+     * Returns which entry this cache evicts when full
+     * @return Which entry this cache evicts when full
+     */
+    public Policy policy() {
+        return policy;
+    }
+
+    // [holiday flag, charge-day mask: 8][calendar id: 19][checkout epoch day: 21][rental days: 16],
+    // never 0 as rental days never are.
+    private static long keyOf(
+        final Rate rate,
+        final HolidayCalendar calendar,
+        final LocalDate checkoutDate,
+        final int rentalDays
+    ) {
+        final long epochDay = checkoutDate.toEpochDay();
+        final long calendarId = calendar.id();
+        if (epochDay < -(1L << (EPOCH_DAY_BITS - 1)) || epochDay >= 1L << (EPOCH_DAY_BITS - 1)
+            || calendarId >= 1L << CALENDAR_BITS
+            || rentalDays < 1 || rentalDays >= 1 << RENTAL_DAYS_BITS) {
+            return UNCACHEABLE;
+        }
+        final long rules = rate.chargeDayMask() | (rate.chargeForHolidays() ? HOLIDAY_RULE_BIT : 0);
+        return rules << (CALENDAR_BITS + EPOCH_DAY_BITS + RENTAL_DAYS_BITS)
+            | calendarId << (EPOCH_DAY_BITS + RENTAL_DAYS_BITS)
+            | (epochDay & ((1L << EPOCH_DAY_BITS) - 1)) << RENTAL_DAYS_BITS
+            | rentalDays;
+    }
+
+    // Keys of nearby dates and lengths differ only in a few bits, so spread them across all bits first.
+    private static long mix(final long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    private int stripeOf(final long hash) {
+        return stripeShift == Long.SIZE ? 0 : (int) (hash >>> stripeShift);
+    }
+
+    /**
+     * A fixed-size table of entries, threaded on a list from most to least recently used (or written, under FIFO).
+     * Entries are addressed by number. The hash index maps each key to its entry number plus one, 0 being empty,
+     * and is kept free of tombstones by shifting entries back on removal.
+     */
+    private final class Stripe {
+        private final StampedLock lock = new StampedLock();
+        private final int[] index;
+        private final long[] keys;
+        private final int[] values;
+        private final int[] newer;
+        private final int[] older;
+        private int newest = -1;
+        private int oldest = -1;
+        private volatile int size;
+
+        private Stripe(final int capacity) {
+            index = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+            keys = new long[capacity];
+            values = new int[capacity];
+            newer = new int[capacity];
+            older = new int[capacity];
+        }
+
+        private int get(final long key, final long hash) {
+            if (policy == Policy.FIFO) {
+                final long stamp = lock.tryOptimisticRead();
+                if (stamp != 0) {
+                    final int entry = find(key, hash);
+                    final int value = entry < 0 ? MISS : values[entry];
+                    if (lock.validate(stamp)) {
+                        return value;
+                    }
+                }
+            }
+            final long stamp = lock.writeLock();
+            try {
+                final int entry = find(key, hash);
+                if (entry < 0) {
+                    return MISS;
+                }
+                if (policy == Policy.LRU) {
+                    unlink(entry);
+                    linkNewest(entry);
+                }
+                return values[entry];
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void put(final long key, final long hash, final int value) {
+            final long stamp = lock.writeLock();
+            try {
+                int entry = find(key, hash);
+                if (entry >= 0) {
+                    values[entry] = value;
+                    return;
+                }
+                if (size == keys.length) {
+                    entry = oldest;
+                    unlink(entry);
+                    removeFromIndex(entry);
+                    evictions.increment();
+                } else {
+                    entry = size++;
+                }
+                keys[entry] = key;
+                values[entry] = value;
+                linkNewest(entry);
+                final int mask = index.length - 1;
+                int slot = (int) hash & mask;
+                while (index[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                index[slot] = entry + 1;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void clear() {
+            final long stamp = lock.writeLock();
+            try {
+                Arrays.fill(index, 0);
+                newest = -1;
+                oldest = -1;
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        // An optimistic reader may see the index mid-write. It only ever reads within array bounds, gives up after
+        // one pass, and whatever it finds is discarded unless the stamp validates afterward.
+        private int find(final long key, final long hash) {
+            final int mask = index.length - 1;
+            int slot = (int) hash & mask;
+            for (int probes = 0; probes < index.length; probes++) {
+                final int entry = index[slot] - 1;
+                if (entry < 0) {
+                    return -1;
+                }
+                if (keys[entry] == key) {
+                    return entry;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void removeFromIndex(final int entry) {
+            final int mask = index.length - 1;
+            int hole = (int) mix(keys[entry]) & mask;
+            while (index[hole] != entry + 1) {
+                hole = (hole + 1) & mask;
+            }
+            // Pull back any later entry in the probe run whose home slot is not between the hole and itself.
+            for (int slot = (hole + 1) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+                final int home = (int) mix(keys[index[slot] - 1]) & mask;
+                if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                    index[hole] = index[slot];
+                    hole = slot;
+                }
+            }
+            index[hole] = 0;
+        }
+
+        private void linkNewest(final int entry) {
+            newer[entry] = -1;
+            older[entry] = newest;
+            if (newest >= 0) {
+                newer[newest] = entry;
+            } else {
+                oldest = entry;
+            }
+            newest = entry;
+        }
+
+        private void unlink(final int entry) {
+            final int newerEntry = newer[entry];
+            final int olderEntry = older[entry];
+            if (newerEntry >= 0) {
+                older[newerEntry] = olderEntry;
+            } else {
+                newest = olderEntry;
+            }
+            if (olderEntry >= 0) {
+                newer[olderEntry] = newerEntry;
+            } else {
+                oldest = newerEntry;
+            }
+        }
+    }
+}
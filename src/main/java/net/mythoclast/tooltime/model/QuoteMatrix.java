@@ -0,0 +1,232 @@
+package net.mythoclast.tooltime.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * Answers many quotes over a fixed window of dates from a calendar of running chargeable-day totals per ToolType.
+ * <br>
+ * For each ToolType, entry i of its calendar holds how many of the first i days of the window are chargeable.
+ * The chargeable days of any rental inside the window are then the difference of two entries, however long it is,
+ * so a whole grid of start dates by rental lengths costs one subtraction and one multiply per cell.
+ * <br>
+ * A matrix prices with the Rates current when it was built. Build a new one after reloading rates. A rental is
+ * priced, as a RentalAgreement would be, with the version of its Rate in effect on its first day, so where a dated
+ * version takes effect inside the window the ToolType gets one calendar per version, each covering the whole window,
+ * and a rental reads the calendar of the version it starts under.
+ */
+public final class QuoteMatrix {
+
+    private final LocalDate firstDay;
+    private final long firstEpochDay;
+    private final int horizonDays;
+    // Indexed by ToolType ordinal, then by version in effect within the window, in date order.
+    private final Rate[][] rates;
+    private final int[][] versionStarts;
+    private final int[][][] runningTotals;
+
+    /**
+     * Builds a matrix over the given window, pricing with the current RateTable and the standard HolidayCalendar
+     * @param firstDay The first day of the window
+     * @param horizonDays How many days the window covers
+     */
+    public QuoteMatrix(final LocalDate firstDay, final int horizonDays) {
+        this(RateTable.current(), HolidayCalendar.standard(), firstDay, horizonDays);
+    }
+
+    /**
+     * Builds a matrix over the given window
+     * @param rateTable The Rates to price with
+     * @param calendar The HolidayCalendar deciding which days are observed holidays
+     * @param firstDay The first day of the window
+     * @param horizonDays How many days the window covers
+     */
+    public QuoteMatrix(
+        final RateTable rateTable,
+        final HolidayCalendar calendar,
+        final LocalDate firstDay,
+        final int horizonDays
+    ) {
+        if (null == rateTable || null == calendar || null == firstDay) {
+            throw new IllegalArgumentException("A quote matrix may not be built from null rates, calendar or date.");
+        }
+        if (horizonDays < 1) {
+            throw new IllegalArgumentException("A quote matrix must cover at least one day.");
+        }
+        this.firstDay = firstDay;
+        this.firstEpochDay = firstDay.toEpochDay();
+        this.horizonDays = horizonDays;
+
+        // Mark the window's observed holidays and days of the week once, then share them across every ToolType.
+        final boolean[] holiday = new boolean[horizonDays];
+        final int[] dayMask = new int[horizonDays];
+        for (int i = 0; i < horizonDays; i++) {
+            final LocalDate day = firstDay.plusDays(i);
+            holiday[i] = calendar.isObserved(day);
+            dayMask[i] = Rate.maskOf(day.getDayOfWeek());
+        }
+
+        final ToolType[] types = ToolType.values();
+        rates = new Rate[types.length][];
+        versionStarts = new int[types.length][];
+        runningTotals = new int[types.length][][];
+        for (final ToolType type : types) {
+            // Versions taking effect after the first day and no later than the last.
+            final Map<LocalDate, Rate> changes = rateTable.history(type)
+                .subMap(firstDay.plusDays(1), firstDay.plusDays(horizonDays));
+            final Rate[] typeRates = new Rate[changes.size() + 1];
+            final int[] starts = new int[changes.size() + 1];
+            typeRates[0] = rateTable.rateFor(type, firstDay);
+            int version = 1;
+            for (final Map.Entry<LocalDate, Rate> change : changes.entrySet()) {
+                starts[version] = (int) (change.getKey().toEpochDay() - firstEpochDay);
+                typeRates[version] = change.getValue();
+                version++;
+            }
+            final int[][] typeTotals = new int[typeRates.length][];
+            for (int v = 0; v < typeRates.length; v++) {
+                final Rate rate = typeRates[v];
+                final int[] totals = new int[horizonDays + 1];
+                for (int i = 0; i < horizonDays; i++) {
+                    final boolean charged = (rate.chargeDayMask() & dayMask[i]) != 0
+                        && (rate.chargeForHolidays() || !holiday[i]);
+                    totals[i + 1] = totals[i] + (charged ? 1 : 0);
+                }
+                typeTotals[v] = totals;
+            }
+            rates[type.ordinal()] = typeRates;
+            versionStarts[type.ordinal()] = starts;
+            runningTotals[type.ordinal()] = typeTotals;
+        }
+    }
+
+    /**
+     * Returns the first day of the window
+     * @return The first day of the window
+     */
+    public LocalDate getFirstDay() {
+        return firstDay;
+    }
+
+    /**
+     * Returns the last day of the window
+     * @return The last day of the window
+     */
+    public LocalDate getLastDay() {
+        return firstDay.plusDays(horizonDays - 1);
+    }
+
+    /**
+     * Returns the Rate this matrix prices a ToolType with on the first day of its window
+     * @param toolType The ToolType to look up
+     * @return The Rate this matrix prices the ToolType with on its first day
+     */
+    public Rate getRate(final ToolType toolType) {
+        return rates[toolType.ordinal()][0];
+    }
+
+    /**
+     * Returns the Rate this matrix prices a ToolType with for rentals starting on a given day
+     * @param toolType The ToolType to look up
+     * @param start The first rental day, within the window
+     * @return The Rate this matrix prices the ToolType with for rentals starting on that day
+     */
+    public Rate getRate(final ToolType toolType, final LocalDate start) {
+        return rates[toolType.ordinal()][versionAt(toolType, offsetOf(start, 1))];
+    }
+
+    /**
+     * Counts the chargeable days of a rental
+     * @param toolType The ToolType being rented
+     * @param start The first rental day
+     * @param rentalDays How many days the rental lasts
+     * @return The number of chargeable days in the rental
+     */
+    public int chargeableDays(final ToolType toolType, final LocalDate start, final int rentalDays) {
+        final int offset = offsetOf(start, rentalDays);
+        final int[] totals = runningTotals[toolType.ordinal()][versionAt(toolType, offset)];
+        return totals[offset + rentalDays] - totals[offset];
+    }
+
+    /**
+     * Prices a rental before discount
+     * @param toolType The ToolType being rented
+     * @param start The first rental day
+     * @param rentalDays How many days the rental lasts
+     * @return The pre-discount charge, in cents
+     */
+    public long preDiscountCents(final ToolType toolType, final LocalDate start, final int rentalDays) {
+        return Money.times(getRate(toolType, start).cents(), chargeableDays(toolType, start, rentalDays));
+    }
+
+    /**
+     * Prices every combination of a range of start dates and a range of rental lengths
+     * @param toolType The ToolType being rented
+     * @param firstStart The earliest start date
+     * @param starts How many consecutive start dates to price
+     * @param minDays The shortest rental length to price
+     * @param maxDays The longest rental length to price
+     * @param discount The discount percentage to apply to every charge
+     * @return The final charge of every combination
+     */
+    public PriceGrid grid(
+        final ToolType toolType,
+        final LocalDate firstStart,
+        final int starts,
+        final int minDays,
+        final int maxDays,
+        final int discount
+    ) {
+        if (starts < 1 || minDays < 1 || maxDays < minDays) {
+            throw new IllegalArgumentException("A price grid needs at least one start date and one rental length.");
+        }
+        if (discount < 0 || discount > 100) {
+            throw new IllegalArgumentException("A discount must be between 0% and 100%.");
+        }
+        // The last start with the longest rental must still fit the window; everything else then does too.
+        final int firstOffset = offsetOf(firstStart, 1);
+        offsetOf(firstStart.plusDays(starts - 1), maxDays);
+
+        final int lengths = maxDays - minDays + 1;
+        final long[] finalCents = new long[Math.multiplyExact(starts, lengths)];
+        for (int row = 0; row < starts; row++) {
+            final int begin = firstOffset + row;
+            final int version = versionAt(toolType, begin);
+            final int[] totals = runningTotals[toolType.ordinal()][version];
+            final long cents = rates[toolType.ordinal()][version].cents();
+            final int base = totals[begin];
+            for (int column = 0; column < lengths; column++) {
+                final long pre = Money.times(cents, totals[begin + minDays + column] - base);
+                finalCents[row * lengths + column] = pre - Money.percentOf(pre, discount);
+            }
+        }
+        return new PriceGrid(toolType, firstStart, starts, minDays, lengths, discount, finalCents);
+    }
+
+    // Which of a ToolType's versions is in effect on the given day of the window.
+    private int versionAt(final ToolType toolType, final int offset) {
+        final int[] starts = versionStarts[toolType.ordinal()];
+        if (starts.length == 1) {
+            return 0;
+        }
+        final int found = Arrays.binarySearch(starts, offset);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    // Where a rental starts within the window, checking it also ends within it.
+    private int offsetOf(final LocalDate start, final int rentalDays) {
+        if (rentalDays < 1) {
+            throw new IllegalArgumentException("A tool must be rented for at least one day.");
+        }
+        final long offset = start.toEpochDay() - firstEpochDay;
+        if (offset < 0 || offset + rentalDays > horizonDays) {
+            throw new IllegalArgumentException(
+                STR."A \{rentalDays} day rental from \{start} does not fit between \{firstDay} and \{getLastDay()}."
+            );
+        }
+        return (int) offset;
+    }
+}
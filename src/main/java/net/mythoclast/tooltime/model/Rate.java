@@ -0,0 +1,54 @@
+package net.mythoclast.tooltime.model;
+
+import java.time.DayOfWeek;
+
+/**
+ * Describes what renting a type of tool costs, compiled into a form that makes the per-day charge test one bit check.
+ *
+ * @param description Human-readable description of the tool type. May not be null.
+ * @param cents The daily rental price, in cents. May not be negative.
+ * @param chargeDayMask Which days of the week a charge is levied on. Bit 0 is Monday, bit 6 is Sunday.
+ * @param chargeForHolidays Whether a charge is levied on observed holidays
+ */
+public record Rate(String description, long cents, int chargeDayMask, boolean chargeForHolidays) {
+
+    /**
+     * Day-of-week mask selecting Monday through Friday
+     */
+    public static final int WEEKDAYS = 0b0011111;
+
+    /**
+     * Day-of-week mask selecting Saturday and Sunday
+     */
+    public static final int WEEKENDS = 0b1100000;
+
+    public Rate {
+        if (null == description) {
+            throw new IllegalArgumentException("A rate may not have a null description.");
+        }
+        if (cents < 0) {
+            throw new IllegalArgumentException("A negative daily rate is not allowed.");
+        }
+        if ((chargeDayMask & ~(WEEKDAYS | WEEKENDS)) != 0) {
+            throw new IllegalArgumentException("A charge day mask may only use its lowest seven bits.");
+        }
+    }
+
+    /**
+     * Indicates if a charge is levied for renting on the given day of the week, holidays aside
+     * @param dayOfWeek The day of the week to check
+     * @return True if a charge is levied on the given day of the week, otherwise false
+     */
+    public boolean chargesOn(final DayOfWeek dayOfWeek) {
+        return (chargeDayMask & maskOf(dayOfWeek)) != 0;
+    }
+
+    /**
+     * Returns the day-of-week mask selecting only the given day
+     * @param dayOfWeek The day of the week to select
+     * @return The day-of-week mask selecting only the given day
+     */
+    public static int maskOf(final DayOfWeek dayOfWeek) {
+        return 1 << (dayOfWeek.getValue() - 1);
+    }
+}
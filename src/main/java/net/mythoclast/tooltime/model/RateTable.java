@@ -0,0 +1,299 @@
+package net.mythoclast.tooltime.model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * An immutable snapshot of the Rate for every ToolType.
+ * <br>
+ * One snapshot is current at any time. Loading a new one swaps it in atomically: quotes already in flight keep
+ * pricing against the snapshot they started with, and nothing blocks.
+ * <br>
+ * Rates are read from a properties file keyed by ToolType name. Types or properties left out keep their built-in
+ * defaults.
+ * <pre>
+ * LADDER.description=Ladder
+ * LADDER.cents=149
+ * LADDER.chargeDays=WEEKDAYS,WEEKENDS
+ * LADDER.chargeHolidays=false
+ * </pre>
+ * chargeDays is a comma-separated list of day names (MONDAY, TUESDAY...), WEEKDAYS, WEEKENDS, or NONE.
+ * <br>
+ * A ToolType may also have versions taking effect on later checkout dates, keyed by the date they take effect.
+ * Each version keeps whatever it leaves out from the version before it.
+ * <pre>
+ * LADDER.2016-01-01.cents=169
+ * LADDER.2019-07-01.cents=199
+ * LADDER.2019-07-01.chargeHolidays=true
+ * </pre>
+ * Every ToolType's versions are held as a sorted array of the epoch days they take effect, so finding the Rate
+ * for a checkout date is a binary search over an immutable array.
+ * <br>
+ * If the system property {@code tooltime.rates} names a file when rates are first used, it is loaded in place of
+ * the defaults.
+ */
+public final class RateTable {
+
+    /**
+     * System property naming a rates file to load at startup
+     */
+    public static final String RATES_PROPERTY = "tooltime.rates";
+
+    private static final Set<String> FIELDS = Set.of("description", "cents", "chargeDays", "chargeHolidays");
+
+    private static final AtomicReference<RateTable> CURRENT = new AtomicReference<>(initial());
+
+    // Indexed by ToolType ordinal, then by version. The first version of every type is in effect from the start of
+    // time, so a search always lands on one.
+    private final long[][] effectiveDays;
+    private final Rate[][] versions;
+
+    private RateTable(final long[][] effectiveDays, final Rate[][] versions) {
+        this.effectiveDays = effectiveDays;
+        this.versions = versions;
+    }
+
+    /**
+     * Returns the snapshot currently used for pricing
+     * @return The snapshot currently used for pricing
+     */
+    public static RateTable current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes the given snapshot the one used for pricing from now on
+     * @param table The snapshot to price with. May not be null.
+     * @return The snapshot that was previously current
+     */
+    public static RateTable install(final RateTable table) {
+        if (null == table) {
+            throw new IllegalArgumentException("A null rate table may not be installed.");
+        }
+        return CURRENT.getAndSet(table);
+    }
+
+    /**
+     * Loads a rates file and makes it the snapshot used for pricing from now on.
+     * If the file cannot be read or parsed, the current snapshot is left in place.
+     * @param path The rates file to load
+     * @return The newly installed snapshot
+     * @throws IOException If the file cannot be read
+     */
+    public static RateTable reload(final Path path) throws IOException {
+        final RateTable table = load(path);
+        install(table);
+        return table;
+    }
+
+    /**
+     * Returns the snapshot holding the built-in rate of every ToolType
+     * @return The snapshot holding the built-in rate of every ToolType
+     */
+    public static RateTable defaults() {
+        final ToolType[] types = ToolType.values();
+        final long[][] effectiveDays = new long[types.length][];
+        final Rate[][] versions = new Rate[types.length][];
+        for (final ToolType type : types) {
+            effectiveDays[type.ordinal()] = new long[] {Long.MIN_VALUE};
+            versions[type.ordinal()] = new Rate[] {type.defaultRate()};
+        }
+        return new RateTable(effectiveDays, versions);
+    }
+
+    /**
+     * Reads a snapshot from a rates file
+     * @param path The rates file to read
+     * @return The snapshot described by the file, with defaults for anything it leaves out
+     * @throws IOException If the file cannot be read
+     */
+    public static RateTable load(final Path path) throws IOException {
+        try (final Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Reads a snapshot from rates in properties form
+     * @param reader Where to read the rates from
+     * @return The snapshot described by the rates, with defaults for anything they leave out
+     * @throws IOException If the rates cannot be read
+     */
+    public static RateTable parse(final Reader reader) throws IOException {
+        final Properties properties = new Properties();
+        properties.load(reader);
+        final ToolType[] types = ToolType.values();
+        final List<SortedSet<LocalDate>> dates = new ArrayList<>(types.length);
+        for (int i = 0; i < types.length; i++) {
+            dates.add(new TreeSet<>());
+        }
+        for (final String key : properties.stringPropertyNames()) {
+            final String[] parts = key.split("\\.");
+            if (parts.length < 2 || parts.length > 3 || !isToolType(parts[0]) || !FIELDS.contains(parts[parts.length - 1])) {
+                throw new IllegalArgumentException(STR."Unrecognized rate property `\{key}`.");
+            }
+            if (parts.length == 3) {
+                try {
+                    dates.get(ToolType.valueOf(parts[0]).ordinal()).add(LocalDate.parse(parts[1]));
+                } catch (final DateTimeException e) {
+                    throw new IllegalArgumentException(STR."Rate property `\{key}` has no yyyy-MM-dd date.", e);
+                }
+            }
+        }
+
+        final RateTable defaults = defaults();
+        final long[][] effectiveDays = new long[types.length][];
+        final Rate[][] versions = new Rate[types.length][];
+        for (final ToolType type : types) {
+            final SortedSet<LocalDate> typeDates = dates.get(type.ordinal());
+            final long[] days = new long[typeDates.size() + 1];
+            final Rate[] rates = new Rate[typeDates.size() + 1];
+            days[0] = Long.MIN_VALUE;
+            rates[0] = parseRate(properties, type.name() + ".", defaults.versions[type.ordinal()][0]);
+            int version = 1;
+            for (final LocalDate date : typeDates) {
+                days[version] = date.toEpochDay();
+                rates[version] = parseRate(properties, STR."\{type.name()}.\{date}.", rates[version - 1]);
+                version++;
+            }
+            effectiveDays[type.ordinal()] = days;
+            versions[type.ordinal()] = rates;
+        }
+        return new RateTable(effectiveDays, versions);
+    }
+
+    /**
+     * Returns the Rate of the given ToolType in effect today in this snapshot
+     * @param type The ToolType whose Rate to return
+     * @return The Rate of the given ToolType
+     */
+    public Rate rateFor(final ToolType type) {
+        final Rate[] typeVersions = versions[type.ordinal()];
+        return typeVersions.length == 1 ? typeVersions[0] : rateFor(type, LocalDate.now());
+    }
+
+    /**
+     * Returns the Rate of the given ToolType in effect on the given checkout date in this snapshot
+     * @param type The ToolType whose Rate to return
+     * @param checkoutDate The date of the checkout being priced
+     * @return The latest version of the ToolType's Rate taking effect on or before the checkout date
+     */
+    public Rate rateFor(final ToolType type, final LocalDate checkoutDate) {
+        final Rate[] typeVersions = versions[type.ordinal()];
+        if (typeVersions.length == 1) {
+            return typeVersions[0];
+        }
+        final int found = Arrays.binarySearch(effectiveDays[type.ordinal()], checkoutDate.toEpochDay());
+        // A miss returns -(insertion point) - 1, and the version in effect is the one just before the insertion point.
+        return typeVersions[found >= 0 ? found : -found - 2];
+    }
+
+    /**
+     * Returns every version of the given ToolType's Rate taking effect on a given date, in date order
+     * @param type The ToolType whose versions to return
+     * @return The date each dated version takes effect, mapped to that version
+     */
+    public SortedMap<LocalDate, Rate> history(final ToolType type) {
+        final long[] days = effectiveDays[type.ordinal()];
+        final Rate[] typeVersions = versions[type.ordinal()];
+        final SortedMap<LocalDate, Rate> history = new TreeMap<>();
+        for (int i = 1; i < days.length; i++) {
+            history.put(LocalDate.ofEpochDay(days[i]), typeVersions[i]);
+        }
+        return Collections.unmodifiableSortedMap(history);
+    }
+
+    private static RateTable initial() {
+        final String configured = System.getProperty(RATES_PROPERTY);
+        if (null == configured) {
+            return defaults();
+        }
+        try {
+            return load(Path.of(configured));
+        } catch (final IOException e) {
+            throw new IllegalStateException(STR."Rates file `\{configured}` could not be read.", e);
+        }
+    }
+
+    private static boolean isToolType(final String name) {
+        for (final ToolType type : ToolType.values()) {
+            if (type.name().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Rate parseRate(final Properties properties, final String prefix, final Rate fallback) {
+        return new Rate(
+            properties.getProperty(prefix + "description", fallback.description()),
+            parseCents(properties.getProperty(prefix + "cents"), fallback.cents()),
+            parseDays(properties.getProperty(prefix + "chargeDays"), fallback.chargeDayMask()),
+            parseBoolean(properties.getProperty(prefix + "chargeHolidays"), fallback.chargeForHolidays())
+        );
+    }
+
+    private static long parseCents(final String value, final long fallback) {
+        if (null == value) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException(STR."Rate `\{value}` is not a whole number of cents.", e);
+        }
+    }
+
+    static int parseDays(final String value, final int fallback) {
+        if (null == value) {
+            return fallback;
+        }
+        int mask = 0;
+        for (final String day : value.split(",")) {
+            mask |= switch (day.trim().toUpperCase(Locale.ROOT)) {
+                case "WEEKDAYS" -> Rate.WEEKDAYS;
+                case "WEEKENDS" -> Rate.WEEKENDS;
+                case "NONE", "" -> 0;
+                default -> {
+                    try {
+                        yield Rate.maskOf(DayOfWeek.valueOf(day.trim().toUpperCase(Locale.ROOT)));
+                    } catch (final IllegalArgumentException e) {
+                        throw new IllegalArgumentException(STR."`\{day.trim()}` is not a day of the week.", e);
+                    }
+                }
+            };
+        }
+        return mask;
+    }
+
+    private static boolean parseBoolean(final String value, final boolean fallback) {
+        if (null == value) {
+            return fallback;
+        }
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalArgumentException(STR."`\{value}` is neither true nor false.");
+        };
+    }
+}
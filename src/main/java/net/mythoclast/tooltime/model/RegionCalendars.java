@@ -0,0 +1,168 @@
+package net.mythoclast.tooltime.model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * The HolidayCalendar each store region observes, looked up by region id when a Checkout is priced.
+ * <br>
+ * Every calendar is compiled once and shared by every thread pricing in its region. The {@value #DEFAULT_REGION}
+ * region always exists and observes the standard calendar unless replaced. Further regions can be registered,
+ * or loaded at startup from the properties file named by the {@value #HOLIDAYS_PROPERTY} system property,
+ * each line naming a region and the rules it observes:
+ * <pre>
+ * US = JULY 4; SEPTEMBER MONDAY 1
+ * US-MA = JULY 4; SEPTEMBER MONDAY 1; APRIL MONDAY 3
+ * CA-ON = JULY 1; SEPTEMBER MONDAY 1; AUGUST MONDAY 1
+ * </pre>
+ * Rules are in the form read by {@link HolidayRule#parse(String)}.
+ */
+public final class RegionCalendars {
+
+    /**
+     * The region a Checkout is priced in unless it names another
+     */
+    public static final String DEFAULT_REGION = "US";
+
+    /**
+     * The system property naming a region calendars file to load at startup
+     */
+    public static final String HOLIDAYS_PROPERTY = "tooltime.holidays";
+
+    private static final RegionCalendars DEFAULT = new RegionCalendars();
+
+    static {
+        final String configured = System.getProperty(HOLIDAYS_PROPERTY);
+        if (null != configured) {
+            try {
+                DEFAULT.registerAll(load(Path.of(configured)));
+            } catch (final IOException e) {
+                throw new UncheckedIOException(STR."Could not read holidays file `\{configured}`.", e);
+            }
+        }
+    }
+
+    private final ConcurrentMap<String, HolidayCalendar> byRegion = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a set of region calendars holding only the {@value #DEFAULT_REGION} region, observing the standard
+     * calendar
+     */
+    public RegionCalendars() {
+        byRegion.put(DEFAULT_REGION, HolidayCalendar.standard());
+    }
+
+    /**
+     * Returns the region calendars used for pricing
+     * @return The region calendars used for pricing
+     */
+    public static RegionCalendars defaultRegions() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the calendar a region observes
+     * @param region The region id
+     * @return The calendar the region observes
+     * @throws IllegalArgumentException If the region is not known
+     */
+    public HolidayCalendar forRegion(final String region) {
+        final HolidayCalendar calendar = byRegion.get(region);
+        if (null == calendar) {
+            throw new IllegalArgumentException(STR."Unknown region `\{region}`.");
+        }
+        return calendar;
+    }
+
+    /**
+     * Sets the calendar a region observes, replacing any it observed before
+     * @param region The region id. May not be null or blank.
+     * @param calendar The calendar the region observes. May not be null.
+     * @return The calendar the region observed before, or null if it is new
+     */
+    public HolidayCalendar register(final String region, final HolidayCalendar calendar) {
+        if (null == region || region.isBlank()) {
+            throw new IllegalArgumentException("A region id may not be null or blank.");
+        }
+        if (null == calendar) {
+            throw new IllegalArgumentException("A region may not observe a null calendar.");
+        }
+        return byRegion.put(region, calendar);
+    }
+
+    /**
+     * Forgets a region, so Checkouts in it can no longer be priced
+     * @param region The region id. May not be the {@value #DEFAULT_REGION} region.
+     * @return The calendar the region observed, or null if it was not known
+     */
+    public HolidayCalendar unregister(final String region) {
+        if (DEFAULT_REGION.equals(region)) {
+            throw new IllegalArgumentException(STR."The \{DEFAULT_REGION} region may not be unregistered.");
+        }
+        return null == region ? null : byRegion.remove(region);
+    }
+
+    /**
+     * Sets the calendar of every region in the given map
+     * @param calendars The calendar of each region
+     */
+    public void registerAll(final Map<String, HolidayCalendar> calendars) {
+        calendars.forEach(this::register);
+    }
+
+    /**
+     * Returns the ids of every known region
+     * @return The ids of every known region
+     */
+    public Set<String> regions() {
+        return Set.copyOf(byRegion.keySet());
+    }
+
+    /**
+     * Reads region calendars from a file
+     * @param path The region calendars file to read
+     * @return The calendar of each region named in the file
+     * @throws IOException If the file cannot be read
+     */
+    public static Map<String, HolidayCalendar> load(final Path path) throws IOException {
+        try (final Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Reads region calendars in properties form
+     * @param reader Where to read the region calendars from
+     * @return The calendar of each region named, in region order
+     * @throws IOException If the region calendars cannot be read
+     */
+    public static Map<String, HolidayCalendar> parse(final Reader reader) throws IOException {
+        final Properties properties = new Properties();
+        properties.load(reader);
+        final Map<String, HolidayCalendar> calendars = new TreeMap<>();
+        for (final String region : properties.stringPropertyNames()) {
+            final List<HolidayRule> rules = new ArrayList<>();
+            for (final String rule : properties.getProperty(region).split(";")) {
+                if (!rule.isBlank()) {
+                    rules.add(HolidayRule.parse(rule));
+                }
+            }
+            calendars.put(region, new HolidayCalendar(rules));
+        }
+        return calendars;
+    }
+}
@@ -1,24 +1,112 @@
 package net.mythoclast.tooltime.model;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.math.MathContext;
-import java.math.RoundingMode;
-import java.text.NumberFormat;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.EnumSet;
-import java.util.Locale;
 
 /**
  * Describes a Rental Agreement resulting from renting a Tool as described in the provided Checkout.
- * All values not directly/statically available in the Checkout or its contained records are computed on-demand.
+ * All values not directly/statically available in the Checkout or its contained records are computed once,
+ * when the agreement is created, and kept in its PriceBreakdown.
  * @param checkout The Checkout that triggered this rental agreement
+ * @param pricing The computed pricing of the Checkout
  */
 public record RentalAgreement(
-        Checkout checkout
+        Checkout checkout,
+        PriceBreakdown pricing
 ) {
+    public RentalAgreement {
+        if (null == checkout) {
+            throw new IllegalArgumentException("A rental agreement may not include a null Checkout.");
+        }
+        if (null == pricing) {
+            throw new IllegalArgumentException("A rental agreement may not include a null price breakdown.");
+        }
+    }
+
+    /**
+     * Creates a RentalAgreement for the given Checkout, pricing it immediately
+     * @param checkout The Checkout that triggered this rental agreement
+     */
+    public RentalAgreement(final Checkout checkout) {
+        this(checkout, PriceBreakdown.of(checkout));
+    }
+
+    /**
+     * Creates a RentalAgreement for the given Checkout with the current Promotions stacked on its discount
+     * @param checkout The Checkout that triggered this rental agreement
+     * @return The priced RentalAgreement, keeping the entered discount on the Checkout and the promotions' share
+     * in its pricing
+     */
+    public static RentalAgreement promoted(final Checkout checkout) {
+        return promoted(checkout, Promotions.current());
+    }
+
+    /**
+     * Creates a RentalAgreement for the given Checkout with the given Promotions stacked on its discount
+     * @param checkout The Checkout that triggered this rental agreement
+     * @param promotions The Promotions to evaluate against the Checkout
+     * @return The priced RentalAgreement, keeping the entered discount on the Checkout and the promotions' share
+     * in its pricing
+     */
+    public static RentalAgreement promoted(final Checkout checkout, final Promotions promotions) {
+        return new RentalAgreement(checkout, PriceBreakdown.of(checkout, promotions));
+    }
+
+    /**
+     * Extends this rental by the given number of days, pricing only the added days
+     * @param extraDays How many days to add to the rental. Must be positive.
+     * @return The Amendment from this agreement to the extended one
+     */
+    public Amendment extend(final int extraDays) {
+        if (extraDays < 1) {
+            throw new IllegalArgumentException("A rental must be extended by at least one day.");
+        }
+        return amend(Math.addExact(checkout.rentalDays(), extraDays));
+    }
+
+    /**
+     * Ends this rental early, with the Tool returned on the given date, removing only the days no longer rented
+     * @param returnDate The date the Tool is returned. Must fall between the checkout date and the due date.
+     * @return The Amendment from this agreement to the shortened one
+     */
+    public Amendment returnOn(final LocalDate returnDate) {
+        if (null == returnDate) {
+            throw new IllegalArgumentException("A rental may not be returned on a null date.");
+        }
+        if (returnDate.isBefore(checkout.checkoutDate())) {
+            throw new IllegalArgumentException("A tool may not be returned before it was checked out.");
+        }
+        if (returnDate.isAfter(pricing.dueDate())) {
+            throw new IllegalArgumentException("An early return may not fall after the due date, extend the rental instead.");
+        }
+        return amend(Math.toIntExact(returnDate.toEpochDay() - checkout.checkoutDate().toEpochDay() + 1));
+    }
+
+    /**
+     * Changes the length of this rental, pricing only the days added or removed, with the current Promotions
+     * evaluated afresh against the amended length
+     * @param rentalDays The amended number of rental days. Must be at least one.
+     * @return The Amendment from this agreement to the amended one
+     */
+    public Amendment amend(final int rentalDays) {
+        return amend(rentalDays, Promotions.current());
+    }
+
+    /**
+     * Changes the length of this rental, pricing only the days added or removed, with the given Promotions
+     * evaluated against the amended length
+     * @param rentalDays The amended number of rental days. Must be at least one.
+     * @param promotions The Promotions to evaluate against the amended rental
+     * @return The Amendment from this agreement to the amended one
+     */
+    public Amendment amend(final int rentalDays, final Promotions promotions) {
+        final Checkout amended = new Checkout(
+                checkout.tool(), rentalDays, checkout.discount(), checkout.checkoutDate(), checkout.region()
+        );
+        return new Amendment(
+                this, new RentalAgreement(amended, pricing.withRentalDays(checkout, rentalDays, promotions))
+        );
+    }
+
     /**
      * Returns the code of the Tool within the Checkout
      * @return The code of the Tool within the Checkout
@@ -35,6 +123,15 @@ public record RentalAgreement(
         return checkout.tool().type();
     }
 
+    /**
+     * Returns the description of the ToolType within the Checkout, from the version of its Rate in effect on the
+     * checkout date, which is the one it was priced with
+     * @return The description of the ToolType within the Checkout
+     */
+    public String getToolDescription() {
+        return getToolType().getRate(getCheckoutDate()).description();
+    }
+
     /**
      * Returns the brand of the Tool within the Checkout
      * @return The brand of the Tool within the Checkout
@@ -60,21 +157,19 @@ public record RentalAgreement(
     }
 
     /**
-     * Computes and returns the LocalDate of when the Tool is due back
-     * @return The computed LocalDate of when the Tool is due back
+     * Returns the LocalDate of when the Tool is due back
+     * @return The LocalDate of when the Tool is due back
      */
     public LocalDate getDueDate() {
-        // The -1 is here because this implementation considers the checkout day the first rental day,
-        // Just using plusDays directly results in the due date being too far ahead by one day.
-        return checkout.checkoutDate().plusDays(checkout.rentalDays() - 1);
+        return pricing.dueDate();
     }
 
     /**
-     * Returns the daily rental cost, in cents, of the Tool within the Checkout, extracted from its ToolType
+     * Returns the daily rental cost, in cents, of the Tool within the Checkout, as of when it was priced
      * @return The daily rental cost, in cents, of the Tool within the Checkout.
      */
-    public int getDailyRentalCents() {
-        return checkout.tool().type().getCents();
+    public long getDailyRentalCents() {
+        return pricing.dailyRentalCents();
     }
 
     /**
@@ -82,62 +177,39 @@ public record RentalAgreement(
      * @return The formatted daily rental cost of the Tool within the Checkout, in dollars and cents.
      */
     public String getPrettyDailyRentalAmount() {
-        return NumberFormat.getCurrencyInstance(Locale.US).format(
-            new BigDecimal(BigInteger.valueOf(getDailyRentalCents()), 2)
-        );
+        return Money.format(getDailyRentalCents());
     }
 
     /**
-     * Computes and returns the number of days in the rental period for which a charge will be levied
-     * @return The computed number of days in the rental period for which a charge will be levied
+     * Returns the number of days in the rental period for which a charge will be levied
+     * @return The number of days in the rental period for which a charge will be levied
      */
     public int getChargeableDays() {
-        final LocalDate checkoutDate = getCheckoutDate();
-        final LocalDate dueDate = getDueDate();
-        final ToolType toolType = getToolType();
-        final EnumSet<DayOfWeek> weekends = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
-        final EnumSet<DayOfWeek> weekdays = EnumSet.of(
-                DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY
-        );
-        return checkoutDate.datesUntil(
-                dueDate.plusDays(1)
-        ).filter(
-            date ->  {
-                // If we *don't* charge for Holidays,
-                // immediately check for Holidays and return false if it is one.
-                // We don't care what day of the week observed Holidays fall on.
-                if (!toolType.doesChargeForHolidays()) {
-                    if (
-                            date.equals(Holiday.INDEPENDENCE_DAY.nextObserved(checkoutDate)) ||
-                            date.equals(Holiday.LABOR_DAY.nextObserved(checkoutDate))
-                    ) {
-                        return false;
-                    }
-                }
-
-                return (
-                    toolType.doesChargeForWeekdays() && weekdays.contains(date.getDayOfWeek())
-                ) || (
-                    toolType.doesChargeForWeekends() && weekends.contains(date.getDayOfWeek())
-                );
-            }
-        ).toList().size();
-    }
-
-    /**
-     * Returns the discount percentage as denoted in the Checkout
-     * @return The discount percentage as denoted in the Checkout
+        return pricing.chargeableDays();
+    }
+
+    /**
+     * Returns the total discount percentage: the one denoted in the Checkout plus any added by Promotions
+     * @return The total discount percentage
      */
     public int getDiscountPercent() {
-        return checkout.discount();
+        return checkout.discount() + pricing.promotionPercent();
+    }
+
+    /**
+     * Returns the discount percentage Promotions added to the one denoted in the Checkout
+     * @return The discount percentage Promotions added to the one denoted in the Checkout
+     */
+    public int getPromotionPercent() {
+        return pricing.promotionPercent();
     }
 
     /**
      * Returns the computed pre-discount rental charge, in cents
      * @return The computed pre-discount rental charge, in cents.
      */
-    public int getPreDiscountCharge() {
-        return getChargeableDays() * getDailyRentalCents();
+    public long getPreDiscountCharge() {
+        return pricing.preDiscountCents();
     }
 
     /**
@@ -145,19 +217,15 @@ public record RentalAgreement(
      * @return The formatted pre-discount rental charge, in dollars and cents.
      */
     public String getPrettyPreDiscountCharge() {
-        return NumberFormat.getCurrencyInstance(Locale.US).format(
-                new BigDecimal(BigInteger.valueOf(getPreDiscountCharge()), 2)
-        );
+        return Money.format(getPreDiscountCharge());
     }
 
     /**
-     * Computes and returns the amount of the rental discount, in cents.
+     * Returns the computed amount of the rental discount, in cents.
      * @return The computed amount of the rental discount, in cents.
      */
-    public int getDiscountAmount() {
-        return BigDecimal.valueOf(getPreDiscountCharge()).multiply(
-                BigDecimal.valueOf(((double)getDiscountPercent())/100.0)
-        ).round(new MathContext(34, RoundingMode.HALF_UP)).intValue();
+    public long getDiscountAmount() {
+        return pricing.discountCents();
     }
 
     /**
@@ -165,17 +233,15 @@ public record RentalAgreement(
      * @return The formatted amount of the rental discount, in dollars and cents.
      */
     public String getPrettyDiscountAmount() {
-        return NumberFormat.getCurrencyInstance(Locale.US).format(
-                new BigDecimal(BigInteger.valueOf(getDiscountAmount()), 2)
-        );
+        return Money.format(getDiscountAmount());
     }
 
     /**
-     * Computes and returns the final rental charge, after discount, in cents.
+     * Returns the computed final rental charge, after discount, in cents.
      * @return The computed final rental charge, after discount, in cents.
      */
-    public int getFinalCharge() {
-        return getPreDiscountCharge() - getDiscountAmount();
+    public long getFinalCharge() {
+        return pricing.finalCents();
     }
 
     /**
@@ -183,9 +249,7 @@ public record RentalAgreement(
      * @return The formatted final rental charge, in dollars and cents.
      */
     public String getPrettyFinalCharge() {
-        return NumberFormat.getCurrencyInstance(Locale.US).format(
-                new BigDecimal(BigInteger.valueOf(getFinalCharge()), 2)
-        );
+        return Money.format(getFinalCharge());
     }
 
     /**
@@ -193,21 +257,6 @@ public record RentalAgreement(
      * @return The computed, printable, String report form of this RentalAgreement
      */
     public String getReport() {
-        return STR.
-            """
-            Tool code: \{getToolCode()}
-            Tool type: \{getToolType().getDescription()}
-            Tool brand: \{getToolBrand()}
-            Rental days: \{getRentalDays()}
-            Check out date: \{getCheckoutDate().format(DateTimeFormatter.ofPattern("MM/dd/yy"))}
-            Due date: \{getDueDate().format(DateTimeFormatter.ofPattern("MM/dd/yy"))}
-            Daily rental charge: \{getPrettyDailyRentalAmount()}
-            Charge days: \{getChargeableDays()}
-            Pre-discount charge: \{getPrettyPreDiscountCharge()}
-            Discount percent: \{getDiscountPercent()}%
-            Discount amount: \{getPrettyDiscountAmount()}
-            Final charge: \{getPrettyFinalCharge()}
-            """
-            .stripIndent();
+        return ReportWriter.write(this, new StringBuilder(320)).toString();
     }
 }
@@ -0,0 +1,205 @@
+package net.mythoclast.tooltime.model;
+
+import net.mythoclast.tooltime.metrics.PricingMetrics;
+import net.mythoclast.tooltime.metrics.PricingStage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+/**
+ * Renders the printable report form of a RentalAgreement directly into a caller-supplied destination.
+ * Money is formatted as US dollars and dates as MM/dd/yy using integer arithmetic, so rendering a report
+ * creates no formatters, BigDecimals, or intermediate Strings.
+ */
+public final class ReportWriter {
+
+    private ReportWriter() {
+    }
+
+    /**
+     * Renders the report form of a RentalAgreement onto the end of the given StringBuilder
+     * @param agreement The RentalAgreement to render
+     * @param out The StringBuilder to append the report to
+     * @return The given StringBuilder
+     */
+    public static StringBuilder write(final RentalAgreement agreement, final StringBuilder out) {
+        try {
+            render(agreement, out);
+        } catch (final IOException e) {
+            // StringBuilder never throws, this is only here to satisfy Appendable's signature.
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    /**
+     * Renders the report form of a RentalAgreement onto the given Appendable
+     * @param agreement The RentalAgreement to render
+     * @param out The Appendable to append the report to
+     * @return The given Appendable
+     * @throws IOException If the Appendable throws one
+     */
+    public static <A extends Appendable> A write(final RentalAgreement agreement, final A out) throws IOException {
+        render(agreement, out);
+        return out;
+    }
+
+    /**
+     * Renders the report form of a RentalAgreement into the given ByteBuffer as UTF-8,
+     * starting at its current position and advancing it past the report.
+     * @param agreement The RentalAgreement to render
+     * @param out The ByteBuffer to put the report into
+     * @return The given ByteBuffer
+     * @throws java.nio.BufferOverflowException If the report does not fit in the buffer's remaining space
+     */
+    public static ByteBuffer write(final RentalAgreement agreement, final ByteBuffer out) {
+        try {
+            render(agreement, new ByteBufferAppendable(out));
+        } catch (final IOException e) {
+            // ByteBufferAppendable never throws, this is only here to satisfy Appendable's signature.
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    /**
+     * Formats an amount of cents as US dollars, e.g. 123456 becomes $1,234.56
+     * @param cents The amount to format, in cents
+     * @param out The StringBuilder to append the formatted amount to
+     * @return The given StringBuilder
+     */
+    public static StringBuilder appendDollars(final long cents, final StringBuilder out) {
+        try {
+            dollars(cents, out);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    private static void render(final RentalAgreement agreement, final Appendable out) throws IOException {
+        final long started = PricingMetrics.start();
+        out.append("Tool code: ").append(agreement.getToolCode()).append('\n');
+        out.append("Tool type: ").append(agreement.getToolDescription()).append('\n');
+        out.append("Tool brand: ").append(agreement.getToolBrand()).append('\n');
+        out.append("Rental days: ");
+        digits(agreement.getRentalDays(), out);
+        out.append("\nCheck out date: ");
+        date(agreement.getCheckoutDate(), out);
+        out.append("\nDue date: ");
+        date(agreement.getDueDate(), out);
+        out.append("\nDaily rental charge: ");
+        dollars(agreement.getDailyRentalCents(), out);
+        out.append("\nCharge days: ");
+        digits(agreement.getChargeableDays(), out);
+        out.append("\nPre-discount charge: ");
+        dollars(agreement.getPreDiscountCharge(), out);
+        out.append("\nDiscount percent: ");
+        digits(agreement.getDiscountPercent(), out);
+        out.append("%\nDiscount amount: ");
+        dollars(agreement.getDiscountAmount(), out);
+        out.append("\nFinal charge: ");
+        dollars(agreement.getFinalCharge(), out);
+        out.append('\n');
+        PricingMetrics.stop(PricingStage.REPORT, agreement.getToolCode(), agreement.getRentalDays(), started);
+    }
+
+    // MM/dd/yy, the two-digit year being the year of the century.
+    private static void date(final LocalDate date, final Appendable out) throws IOException {
+        twoDigits(date.getMonthValue(), out);
+        out.append('/');
+        twoDigits(date.getDayOfMonth(), out);
+        out.append('/');
+        twoDigits(Math.floorMod(date.getYear(), 100), out);
+    }
+
+    // Matches NumberFormat.getCurrencyInstance(Locale.US): $ prefix, comma grouping, two decimals, leading minus.
+    private static void dollars(final long cents, final Appendable out) throws IOException {
+        if (cents < 0) {
+            out.append('-');
+        }
+        out.append('$');
+        final long magnitude = Math.abs(cents);
+        groupedDigits(magnitude / 100, out);
+        out.append('.');
+        twoDigits((int) (magnitude % 100), out);
+    }
+
+    private static void groupedDigits(final long value, final Appendable out) throws IOException {
+        if (value < 1000) {
+            digits(value, out);
+            return;
+        }
+        groupedDigits(value / 1000, out);
+        out.append(',');
+        final int group = (int) (value % 1000);
+        out.append((char) ('0' + group / 100));
+        twoDigits(group % 100, out);
+    }
+
+    // Only ever called with non-negative values. Counts, days and percentages are never negative.
+    private static void digits(final long value, final Appendable out) throws IOException {
+        if (value >= 10) {
+            digits(value / 10, out);
+        }
+        out.append((char) ('0' + value % 10));
+    }
+
+    private static void twoDigits(final int value, final Appendable out) throws IOException {
+        out.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    /**
+     * Adapts a ByteBuffer to Appendable, encoding characters as UTF-8.
+     */
+    private record ByteBufferAppendable(ByteBuffer buffer) implements Appendable {
+        @Override
+        public Appendable append(final CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(final CharSequence csq, final int start, final int end) {
+            for (int i = start; i < end; i++) {
+                final char c = csq.charAt(i);
+                if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(csq.charAt(i + 1))) {
+                    codePoint(Character.toCodePoint(c, csq.charAt(++i)));
+                } else {
+                    codePoint(c);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(final char c) {
+            codePoint(c);
+            return this;
+        }
+
+        private void codePoint(final int codePoint) {
+            if (codePoint < 0x80) {
+                buffer.put((byte) codePoint);
+            } else if (codePoint < 0x800) {
+                buffer.put((byte) (0xC0 | (codePoint >> 6)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (codePoint < 0x10000) {
+                // Unpaired surrogates are encoded as '?', the same as String.getBytes does.
+                if (Character.isSurrogate((char) codePoint)) {
+                    buffer.put((byte) '?');
+                    return;
+                }
+                buffer.put((byte) (0xE0 | (codePoint >> 12)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package net.mythoclast.tooltime.model;
+
+/**
+ * Packs short Tool codes into a single long, so they can be compared and hashed without touching a String.
+ * <br>
+ * Codes of 1 to 12 characters drawn from 0-9 and A-Z pack. Each character becomes a base-37 digit from 1 to 36,
+ * so no two codes share a key and every key unpacks back into its code. Anything else, such as lowercase letters,
+ * punctuation or longer codes, does not pack and is reported as {@link #UNPACKABLE}.
+ */
+public final class ToolCodes {
+
+    /**
+     * Returned in place of a key for codes that do not fit the packed form. Never a valid packed key.
+     */
+    public static final long UNPACKABLE = 0L;
+
+    /**
+     * The longest code that packs
+     */
+    public static final int MAX_PACKED_LENGTH = 12;
+
+    private static final int RADIX = 37;
+
+    private ToolCodes() {
+    }
+
+    /**
+     * Packs a Tool code into a long key
+     * @param code The code to pack
+     * @return The packed key, or {@link #UNPACKABLE} if the code does not fit the packed form
+     */
+    public static long pack(final CharSequence code) {
+        final int length = code.length();
+        if (length == 0 || length > MAX_PACKED_LENGTH) {
+            return UNPACKABLE;
+        }
+        long key = 0;
+        for (int i = 0; i < length; i++) {
+            final int digit = digitOf(code.charAt(i));
+            if (digit == 0) {
+                return UNPACKABLE;
+            }
+            key = key * RADIX + digit;
+        }
+        return key;
+    }
+
+    /**
+     * Packs a Tool code held as ASCII bytes, as read from a scanner or wire buffer, into a long key
+     * @param ascii The buffer holding the code
+     * @param offset Where the code starts within the buffer
+     * @param length How many bytes long the code is
+     * @return The packed key, or {@link #UNPACKABLE} if the code does not fit the packed form
+     */
+    public static long pack(final byte[] ascii, final int offset, final int length) {
+        if (length == 0 || length > MAX_PACKED_LENGTH) {
+            return UNPACKABLE;
+        }
+        long key = 0;
+        for (int i = offset; i < offset + length; i++) {
+            final int digit = digitOf((char) (ascii[i] & 0xFF));
+            if (digit == 0) {
+                return UNPACKABLE;
+            }
+            key = key * RADIX + digit;
+        }
+        return key;
+    }
+
+    /**
+     * Unpacks a long key back into the Tool code it was packed from
+     * @param key A key produced by {@link #pack(CharSequence)}
+     * @return The Tool code the key was packed from
+     */
+    public static String unpack(final long key) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Only positive keys are produced by packing a Tool code.");
+        }
+        final char[] chars = new char[MAX_PACKED_LENGTH];
+        int start = chars.length;
+        for (long remaining = key; remaining > 0; remaining /= RADIX) {
+            chars[--start] = charOf((int) (remaining % RADIX));
+        }
+        return new String(chars, start, chars.length - start);
+    }
+
+    // 0-9 are digits 1-10, A-Z are digits 11-36. Anything else is 0, which never appears in a packed key.
+    private static int digitOf(final char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 1;
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 11;
+        }
+        return 0;
+    }
+
+    private static char charOf(final int digit) {
+        if (digit >= 1 && digit <= 10) {
+            return (char) ('0' + digit - 1);
+        }
+        if (digit >= 11 && digit <= 36) {
+            return (char) ('A' + digit - 11);
+        }
+        throw new IllegalArgumentException("Key was not produced by packing a Tool code.");
+    }
+}
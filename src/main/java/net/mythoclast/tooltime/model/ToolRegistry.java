@@ -0,0 +1,133 @@
+package net.mythoclast.tooltime.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * A catalog of Tools, indexed by code. Each code may only be registered once.
+ * <br>
+ * Codes that fit the packed form described by ToolCodes are kept in a primitive-keyed table and can be looked up
+ * by their packed key directly. Any other code falls back to a String-keyed map.
+ * <br>
+ * Registration and lookup are safe to perform from any number of threads at once,
+ * and neither takes a lock shared by the whole catalog.
+ */
+public final class ToolRegistry {
+
+    private static final ToolRegistry DEFAULT = new ToolRegistry();
+
+    static {
+        // The enumerated Tools are the seed entries of the default catalog, not the whole of it.
+        DEFAULT.registerAll(Arrays.stream(Tools.values()).map(Tools::getTool).toList());
+    }
+
+    private final PackedToolTable byPackedCode;
+    private final ConcurrentMap<String, Tool> byUnpackableCode;
+
+    /**
+     * Creates an empty ToolRegistry
+     */
+    public ToolRegistry() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty ToolRegistry, sized to hold the expected number of Tools without resizing
+     * @param expectedTools How many Tools the registry is expected to hold
+     */
+    public ToolRegistry(final int expectedTools) {
+        byPackedCode = new PackedToolTable(expectedTools);
+        byUnpackableCode = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the registry shared by the whole application, seeded with the enumerated Tools
+     * @return The registry shared by the whole application
+     */
+    public static ToolRegistry defaultRegistry() {
+        return DEFAULT;
+    }
+
+    /**
+     * Registers a Tool, unless its code is already taken
+     * @param tool The Tool to register. May not be null.
+     * @return True if the Tool was registered, false if a Tool with its code already was
+     */
+    public boolean registerIfAbsent(final Tool tool) {
+        if (null == tool) {
+            throw new IllegalArgumentException("A null Tool may not be registered.");
+        }
+        final long key = ToolCodes.pack(tool.code());
+        if (key != ToolCodes.UNPACKABLE) {
+            return byPackedCode.putIfAbsent(key, tool);
+        }
+        return null == byUnpackableCode.putIfAbsent(tool.code(), tool);
+    }
+
+    /**
+     * Registers a Tool
+     * @param tool The Tool to register. May not be null.
+     * @return The given Tool
+     * @throws IllegalArgumentException If a Tool with the same code is already registered
+     */
+    public Tool register(final Tool tool) {
+        if (!registerIfAbsent(tool)) {
+            throw new IllegalArgumentException(STR."Tool code `\{tool.code()}` is already in use.");
+        }
+        return tool;
+    }
+
+    /**
+     * Registers every Tool in the given collection whose code is not already taken
+     * @param tools The Tools to register. May not contain nulls.
+     * @return The Tools which were not registered because their code was already taken, in encounter order
+     */
+    public List<Tool> registerAll(final Collection<Tool> tools) {
+        final List<Tool> rejected = new ArrayList<>();
+        for (final Tool tool : tools) {
+            if (!registerIfAbsent(tool)) {
+                rejected.add(tool);
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * Finds the Tool registered with the given code
+     * @param code The code of the Tool to find
+     * @return The registered Tool, or empty if no Tool is registered with that code
+     */
+    public Optional<Tool> lookup(final String code) {
+        if (null == code) {
+            return Optional.empty();
+        }
+        final long key = ToolCodes.pack(code);
+        return Optional.ofNullable(
+            key != ToolCodes.UNPACKABLE ? byPackedCode.get(key) : byUnpackableCode.get(code)
+        );
+    }
+
+    /**
+     * Finds the Tool registered with the given packed code, without boxing or String hashing
+     * @param key A code packed by {@link ToolCodes#pack(CharSequence)}
+     * @return The registered Tool, or null if no Tool is registered with that code
+     */
+    public Tool lookup(final long key) {
+        return key == ToolCodes.UNPACKABLE ? null : byPackedCode.get(key);
+    }
+
+    /**
+     * Returns the number of registered Tools
+     * @return The number of registered Tools
+     */
+    public int size() {
+        return byPackedCode.size() + byUnpackableCode.size();
+    }
+}
@@ -1,7 +1,12 @@
 package net.mythoclast.tooltime.model;
 
+import java.time.LocalDate;
+
 /**
  * Describes a type of tool
+ * <br>
+ * The description, price and charge rules given to each constant are only its defaults.
+ * The values in effect come from the current RateTable, which can be reloaded from a config file at runtime.
  */
 public enum ToolType {
     /**
@@ -42,24 +47,38 @@ public enum ToolType {
             false
     );
 
-    private final String description;
-    private final int cents;
-    private final boolean chargeForWeekdays;
-    private final boolean chargeForWeekends;
-    private final boolean chargeForHolidays;
+    private final Rate defaultRate;
 
     ToolType(
             final String description,
-            final int cents,
+            final long cents,
             final boolean chargeForWeekdays,
             final boolean chargeForWeekends,
             final boolean chargeForHolidays
     ) {
-        this.description = description;
-        this.cents = cents;
-        this.chargeForWeekdays = chargeForWeekdays;
-        this.chargeForWeekends = chargeForWeekends;
-        this.chargeForHolidays = chargeForHolidays;
+        this.defaultRate = new Rate(
+                description,
+                cents,
+                (chargeForWeekdays ? Rate.WEEKDAYS : 0) | (chargeForWeekends ? Rate.WEEKENDS : 0),
+                chargeForHolidays
+        );
+    }
+
+    /**
+     * Returns the Rate in effect today for this tool type
+     * @return The Rate in effect today for this tool type, from the current RateTable
+     */
+    public final Rate getRate() {
+        return RateTable.current().rateFor(this);
+    }
+
+    /**
+     * Returns the Rate in effect for this tool type on the given checkout date
+     * @param checkoutDate The date of the checkout being priced
+     * @return The Rate in effect for this tool type on the checkout date, from the current RateTable
+     */
+    public final Rate getRate(final LocalDate checkoutDate) {
+        return RateTable.current().rateFor(this, checkoutDate);
     }
 
     /**
@@ -67,31 +86,31 @@ public enum ToolType {
      * @return Human-readable description of this tool type.
      */
     public final String getDescription() {
-        return description;
+        return getRate().description();
     }
 
     /**
      * Returns the rental price of this tool type (in cents)
      * @return The rental price of this tool type. (in cents)
      */
-    public final int getCents() {
-        return cents;
+    public final long getCents() {
+        return getRate().cents();
     }
 
     /**
      * Indicates if there is a charge for renting this tool on a weekday.
-     * @return True if there is a charge for renting this tool on a weekday, otherwise false
+     * @return True if there is a charge for renting this tool on every weekday, otherwise false
      */
     public final boolean doesChargeForWeekdays() {
-        return chargeForWeekdays;
+        return (getRate().chargeDayMask() & Rate.WEEKDAYS) == Rate.WEEKDAYS;
     }
 
     /**
      * Indicates if there is a charge for renting this tool on a weekend.
-     * @return True if there is a charge for renting this tool on a weekend, otherwise false
+     * @return True if there is a charge for renting this tool on both weekend days, otherwise false
      */
     public final boolean doesChargeForWeekends() {
-        return chargeForWeekends;
+        return (getRate().chargeDayMask() & Rate.WEEKENDS) == Rate.WEEKENDS;
     }
 
     /**
@@ -99,6 +118,11 @@ public enum ToolType {
      * @return True if there is a charge for renting this tool on a holiday, otherwise false
      */
     public final boolean doesChargeForHolidays() {
-        return chargeForHolidays;
+        return getRate().chargeForHolidays();
+    }
+
+    // The Rate given to this constant in code, used wherever a rates file does not say otherwise.
+    final Rate defaultRate() {
+        return defaultRate;
     }
 }
@@ -1,7 +1,8 @@
 package net.mythoclast.tooltime.model;
 
 /**
- * Enumerates the four tools we have for rental.
+ * Enumerates the four tools we started out with for rental.
+ * These are the seed entries of the default ToolRegistry, which holds the full catalog.
  */
 public enum Tools {
     /**
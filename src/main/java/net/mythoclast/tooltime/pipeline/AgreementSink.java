@@ -0,0 +1,44 @@
+package net.mythoclast.tooltime.pipeline;
+
+import net.mythoclast.tooltime.journal.AgreementJournal;
+import net.mythoclast.tooltime.model.RentalAgreement;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where a CheckoutPipeline persists each batch of priced agreements before handing them back to their submitters.
+ */
+@FunctionalInterface
+public interface AgreementSink {
+
+    /**
+     * Persists a batch of agreements. A batch is only acknowledged once this returns.
+     * @param batch The agreements to persist, in submission order
+     * @throws IOException If the batch could not be persisted, failing every agreement in it
+     */
+    void persist(List<RentalAgreement> batch) throws IOException;
+
+    /**
+     * Returns a sink which persists nothing, for pipelines that only price
+     * @return A sink which persists nothing
+     */
+    static AgreementSink discarding() {
+        return _ -> {
+        };
+    }
+
+    /**
+     * Returns a sink which appends each batch to a journal and commits it with one flush
+     * @param journal The journal to append to
+     * @return A sink appending to the journal
+     */
+    static AgreementSink journal(final AgreementJournal journal) {
+        return batch -> {
+            for (final RentalAgreement agreement : batch) {
+                journal.append(agreement);
+            }
+            journal.commit();
+        };
+    }
+}
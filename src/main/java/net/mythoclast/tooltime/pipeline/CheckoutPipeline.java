@@ -0,0 +1,209 @@
+package net.mythoclast.tooltime.pipeline;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.RentalAgreement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Prices and persists Checkouts asynchronously, in small batches, on virtual threads.
+ * <br>
+ * Submissions wait in a bounded queue. When it is full, {@link #submit(Checkout)} blocks its caller and
+ * {@link #trySubmit(Checkout)} declines, so a burst is held back at the door instead of growing memory.
+ * Each worker takes whatever has queued up, up to one batch, prices it, persists it through the AgreementSink in
+ * one call, and only then completes the batch's futures. Under light load batches are a single Checkout and add no
+ * delay; under heavy load they fill up and one persist covers many agreements.
+ * <br>
+ * A Checkout that cannot be priced fails its own future without affecting the rest of its batch.
+ * A batch that cannot be persisted fails every future in it.
+ * <br>
+ * Submitters hold a read lock from checking the pipeline is open until their Checkout is queued, and closing takes
+ * the write lock, so nothing can be queued once closing has begun.
+ */
+public final class CheckoutPipeline implements AutoCloseable {
+
+    private static final Submission SHUTDOWN = new Submission(null, null);
+
+    private final BlockingQueue<Submission> queue;
+    private final AgreementSink sink;
+    private final int maxBatch;
+    private final Thread[] workers;
+    private final LongAdder batches = new LongAdder();
+    private final StampedLock lock = new StampedLock();
+    private volatile boolean closed;
+
+    /**
+     * Starts a pipeline with one worker per core
+     * @param sink Where to persist priced agreements
+     * @param capacity How many Checkouts may wait at once
+     * @param maxBatch The most Checkouts priced and persisted together
+     */
+    public CheckoutPipeline(final AgreementSink sink, final int capacity, final int maxBatch) {
+        this(sink, capacity, maxBatch, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Starts a pipeline
+     * @param sink Where to persist priced agreements
+     * @param capacity How many Checkouts may wait at once
+     * @param maxBatch The most Checkouts priced and persisted together
+     * @param workerCount How many batches may be in progress at once
+     */
+    public CheckoutPipeline(final AgreementSink sink, final int capacity, final int maxBatch, final int workerCount) {
+        if (null == sink) {
+            throw new IllegalArgumentException("A checkout pipeline may not persist to a null sink.");
+        }
+        if (capacity < 1 || maxBatch < 1 || workerCount < 1) {
+            throw new IllegalArgumentException("A checkout pipeline needs room, batches and workers of at least 1.");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.sink = sink;
+        this.maxBatch = maxBatch;
+        this.workers = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = Thread.ofVirtual().name("checkout-pipeline-", i).start(this::work);
+        }
+    }
+
+    /**
+     * Submits a Checkout, waiting for room in the queue if it is full
+     * @param checkout The Checkout to price and persist
+     * @return Completes with the persisted agreement, or exceptionally if it could not be priced or persisted
+     * @throws InterruptedException If interrupted while waiting for room
+     * @throws IllegalStateException If the pipeline is closed
+     */
+    public CompletableFuture<RentalAgreement> submit(final Checkout checkout) throws InterruptedException {
+        final long stamp = lock.readLock();
+        try {
+            final Submission submission = submission(checkout);
+            // Workers keep taking until close() gets the write lock, so waiting here can't hold closing up for good.
+            queue.put(submission);
+            return submission.future();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Submits a Checkout if the queue has room for it
+     * @param checkout The Checkout to price and persist
+     * @return Completes with the persisted agreement, or empty if the queue is full
+     * @throws IllegalStateException If the pipeline is closed
+     */
+    public Optional<CompletableFuture<RentalAgreement>> trySubmit(final Checkout checkout) {
+        final long stamp = lock.readLock();
+        try {
+            final Submission submission = submission(checkout);
+            return queue.offer(submission) ? Optional.of(submission.future()) : Optional.empty();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns how many batches have been persisted or failed
+     * @return How many batches have been persisted or failed
+     */
+    public long batches() {
+        return batches.sum();
+    }
+
+    /**
+     * Stops taking submissions, finishes every Checkout already submitted, and stops the workers
+     * @throws InterruptedException If interrupted while waiting for the workers to finish
+     */
+    @Override
+    public void close() throws InterruptedException {
+        final long stamp = lock.writeLock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        // Queued behind everything already submitted, so each worker drains the queue before stopping.
+        for (int i = 0; i < workers.length; i++) {
+            queue.put(SHUTDOWN);
+        }
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private Submission submission(final Checkout checkout) {
+        if (closed) {
+            throw new IllegalStateException("The checkout pipeline is closed.");
+        }
+        return new Submission(checkout, new CompletableFuture<>());
+    }
+
+    private void work() {
+        final List<Submission> taken = new ArrayList<>(maxBatch);
+        final List<Submission> priced = new ArrayList<>(maxBatch);
+        final List<RentalAgreement> agreements = new ArrayList<>(maxBatch);
+        while (true) {
+            Submission next;
+            try {
+                next = queue.take();
+            } catch (final InterruptedException e) {
+                return;
+            }
+            // Polled one at a time rather than drained, so a worker never takes more than its own shutdown marker.
+            while (next != SHUTDOWN) {
+                taken.add(next);
+                if (taken.size() == maxBatch) {
+                    break;
+                }
+                next = queue.poll();
+                if (null == next) {
+                    break;
+                }
+            }
+            for (final Submission submission : taken) {
+                try {
+                    agreements.add(RentalAgreement.promoted(submission.checkout()));
+                    priced.add(submission);
+                } catch (final Throwable e) {
+                    submission.future().completeExceptionally(e);
+                }
+            }
+            if (!agreements.isEmpty()) {
+                persist(priced, agreements);
+            }
+            taken.clear();
+            priced.clear();
+            agreements.clear();
+            if (next == SHUTDOWN) {
+                return;
+            }
+        }
+    }
+
+    private void persist(final List<Submission> priced, final List<RentalAgreement> agreements) {
+        try {
+            sink.persist(List.copyOf(agreements));
+            for (int i = 0; i < priced.size(); i++) {
+                priced.get(i).future().complete(agreements.get(i));
+            }
+        } catch (final Throwable e) {
+            // Errors too, so a worker never dies with futures left hanging and close() never waits on a dead worker.
+            for (final Submission submission : priced) {
+                submission.future().completeExceptionally(e);
+            }
+        } finally {
+            batches.increment();
+        }
+    }
+
+    private record Submission(Checkout checkout, CompletableFuture<RentalAgreement> future) {
+    }
+}
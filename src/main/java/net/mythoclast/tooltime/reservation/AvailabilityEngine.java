@@ -0,0 +1,188 @@
+package net.mythoclast.tooltime.reservation;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.Tool;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Tracks which days each Tool is booked for, and refuses bookings that overlap.
+ * <br>
+ * Every Tool keeps its bookings as non-overlapping epoch-day intervals sorted by start day, so checking for a
+ * conflict is a single floor lookup. Each Tool has its own lock, so counters booking different Tools never wait
+ * on each other, and conflict checks on the same Tool share a read lock.
+ * <br>
+ * Every booking made or cancelled is passed on to the engine's AvailabilityListeners once it has taken effect.
+ * Listeners are called after the Tool's lock is released, so notifications about the same Tool from different
+ * threads may arrive out of order. A listener should read the bookings back rather than trust the order.
+ */
+public final class AvailabilityEngine {
+
+    private final ConcurrentMap<String, UnitSchedule> schedules = new ConcurrentHashMap<>();
+    private final List<AvailabilityListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Passes every booking made or cancelled from now on to the given listener
+     * @param listener The listener to notify. May not be null.
+     */
+    public void addListener(final AvailabilityListener listener) {
+        if (null == listener) {
+            throw new IllegalArgumentException("A null availability listener may not be added.");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Books a Tool for the days a Checkout needs, unless it is already booked on any of them
+     * @param checkout The Checkout to book
+     * @return The booking, or empty if it conflicts with an existing one
+     */
+    public Optional<Reservation> tryReserve(final Checkout checkout) {
+        return tryReserve(Reservation.of(checkout));
+    }
+
+    /**
+     * Books a Tool for a span of days, unless it is already booked on any of them
+     * @param reservation The booking to make
+     * @return The booking, or empty if it conflicts with an existing one
+     */
+    public Optional<Reservation> tryReserve(final Reservation reservation) {
+        final UnitSchedule schedule = schedules.computeIfAbsent(reservation.tool().code(), _ -> new UnitSchedule());
+        if (!schedule.tryReserve(reservation.from().toEpochDay(), reservation.to().toEpochDay())) {
+            return Optional.empty();
+        }
+        for (final AvailabilityListener listener : listeners) {
+            listener.reserved(reservation);
+        }
+        return Optional.of(reservation);
+    }
+
+    /**
+     * Cancels a booking, freeing its days up again
+     * @param reservation A booking previously returned by this engine
+     * @return True if the booking was found and cancelled, otherwise false
+     */
+    public boolean release(final Reservation reservation) {
+        final UnitSchedule schedule = schedules.get(reservation.tool().code());
+        if (null == schedule || !schedule.release(reservation.from().toEpochDay(), reservation.to().toEpochDay())) {
+            return false;
+        }
+        for (final AvailabilityListener listener : listeners) {
+            listener.released(reservation);
+        }
+        return true;
+    }
+
+    /**
+     * Indicates if a Tool is free on every day in a span
+     * @param tool The Tool to check
+     * @param from The first day of the span
+     * @param to The last day of the span, inclusive
+     * @return True if the Tool has no booking on any of the given days, otherwise false
+     */
+    public boolean isAvailable(final Tool tool, final LocalDate from, final LocalDate to) {
+        final UnitSchedule schedule = schedules.get(tool.code());
+        return null == schedule || !schedule.conflicts(from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Returns every booking currently held for a Tool, in date order
+     * @param tool The Tool whose bookings to return
+     * @return Every booking currently held for the Tool, in date order
+     */
+    public List<Reservation> reservationsFor(final Tool tool) {
+        return reservationsFor(tool, LocalDate.MIN, LocalDate.MAX);
+    }
+
+    /**
+     * Returns every booking currently held for a Tool on any day in a span, in date order
+     * @param tool The Tool whose bookings to return
+     * @param from The first day of the span
+     * @param to The last day of the span, inclusive
+     * @return Every booking currently held for the Tool overlapping the span, in date order
+     */
+    public List<Reservation> reservationsFor(final Tool tool, final LocalDate from, final LocalDate to) {
+        final UnitSchedule schedule = schedules.get(tool.code());
+        if (null == schedule) {
+            return List.of();
+        }
+        final List<Reservation> reservations = new ArrayList<>();
+        for (final Map.Entry<Long, Long> booking : schedule.snapshot(from.toEpochDay(), to.toEpochDay()).entrySet()) {
+            reservations.add(new Reservation(
+                tool,
+                LocalDate.ofEpochDay(booking.getKey()),
+                LocalDate.ofEpochDay(booking.getValue())
+            ));
+        }
+        return reservations;
+    }
+
+    /**
+     * The bookings of one Tool, as a map of first epoch day to last epoch day.
+     * Intervals in the map never overlap, so the only one that can conflict with a new booking
+     * is the last one starting on or before the new booking's last day.
+     */
+    private static final class UnitSchedule {
+        private final StampedLock lock = new StampedLock();
+        private final TreeMap<Long, Long> bookings = new TreeMap<>();
+
+        private boolean tryReserve(final long from, final long to) {
+            final long stamp = lock.writeLock();
+            try {
+                if (overlaps(from, to)) {
+                    return false;
+                }
+                bookings.put(from, to);
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private boolean release(final long from, final long to) {
+            final long stamp = lock.writeLock();
+            try {
+                return bookings.remove(from, to);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private boolean conflicts(final long from, final long to) {
+            final long stamp = lock.readLock();
+            try {
+                return overlaps(from, to);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private TreeMap<Long, Long> snapshot(final long from, final long to) {
+            final long stamp = lock.readLock();
+            try {
+                final TreeMap<Long, Long> overlapping = new TreeMap<>(bookings.subMap(from, true, to, true));
+                final Map.Entry<Long, Long> before = bookings.lowerEntry(from);
+                if (null != before && before.getValue() >= from) {
+                    overlapping.put(before.getKey(), before.getValue());
+                }
+                return overlapping;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private boolean overlaps(final long from, final long to) {
+            final Map.Entry<Long, Long> candidate = bookings.floorEntry(to);
+            return null != candidate && candidate.getValue() >= from;
+        }
+    }
+}
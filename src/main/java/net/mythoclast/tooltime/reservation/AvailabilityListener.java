@@ -0,0 +1,20 @@
+package net.mythoclast.tooltime.reservation;
+
+/**
+ * Hears about every booking an AvailabilityEngine makes or cancels, after it has been made or cancelled.
+ * Called on the thread that made the change, so implementations should be quick and thread safe.
+ */
+public interface AvailabilityListener {
+
+    /**
+     * Called after a booking is made
+     * @param reservation The booking that was made
+     */
+    void reserved(Reservation reservation);
+
+    /**
+     * Called after a booking is cancelled
+     * @param reservation The booking that was cancelled
+     */
+    void released(Reservation reservation);
+}
@@ -0,0 +1,263 @@
+package net.mythoclast.tooltime.reservation;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A compressed set of non-negative ints, split roaring-style into chunks of 65536 by their high 16 bits.
+ * <br>
+ * Each chunk present is held in whichever form is smaller: a sorted array of its low 16 bits while it has at most
+ * {@value #ARRAY_LIMIT} members, otherwise a 1024-word bitmap. Sparse sets cost two bytes a member and dense sets
+ * one bit, and set operations work a whole chunk at a time.
+ * <br>
+ * Not thread safe. Callers guard each bitmap with their own lock.
+ */
+final class CompressedBitmap {
+
+    // Past this many members, a bitmap chunk is smaller than an array chunk.
+    private static final int ARRAY_LIMIT = 4096;
+
+    private static final int WORDS = 1024;
+
+    // One chunk's worth of bits per thread, reused by every search the thread makes.
+    private static final ThreadLocal<long[]> SCRATCH = ThreadLocal.withInitial(() -> new long[WORDS]);
+
+    private char[] keys = new char[4];
+    private Chunk[] chunks = new Chunk[4];
+    private int size;
+
+    /**
+     * Adds a value
+     * @param value The value to add. May not be negative.
+     * @return True if the value was added, false if it was already present
+     */
+    boolean add(final int value) {
+        final char key = (char) (value >>> 16);
+        int index = indexOf(key);
+        if (index < 0) {
+            index = -index - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                chunks = Arrays.copyOf(chunks, size * 2);
+            }
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(chunks, index, chunks, index + 1, size - index);
+            keys[index] = key;
+            chunks[index] = new Chunk();
+            size++;
+        }
+        return chunks[index].add((char) value);
+    }
+
+    /**
+     * Removes a value
+     * @param value The value to remove
+     * @return True if the value was removed, false if it was not present
+     */
+    boolean remove(final int value) {
+        final int index = indexOf((char) (value >>> 16));
+        if (index < 0 || !chunks[index].remove((char) value)) {
+            return false;
+        }
+        if (chunks[index].cardinality == 0) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(chunks, index + 1, chunks, index, size - index - 1);
+            size--;
+            chunks[size] = null;
+        }
+        return true;
+    }
+
+    /**
+     * Indicates if a value is present
+     * @param value The value to look for
+     * @return True if the value is present, otherwise false
+     */
+    boolean contains(final int value) {
+        final int index = indexOf((char) (value >>> 16));
+        return index >= 0 && chunks[index].contains((char) value);
+    }
+
+    /**
+     * Returns how many values are present
+     * @return How many values are present
+     */
+    int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += chunks[i].cardinality;
+        }
+        return cardinality;
+    }
+
+    /**
+     * Indicates if no values are present
+     * @return True if no values are present, otherwise false
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Visits every value of a base bitmap present in none of a range of excluded bitmaps, in ascending order.
+     * Works one chunk of the base at a time, clearing every excluded chunk with the same key out of a per-thread
+     * scratch bitmap, so nothing is allocated.
+     * @param base The bitmap whose values to visit
+     * @param excluded The bitmaps whose values to skip. Null elements are skipped.
+     * @param fromIndex The first excluded bitmap to use
+     * @param toIndex One past the last excluded bitmap to use
+     * @param visitor Given every value visited, or null to only count them
+     * @return How many values were visited
+     */
+    static int forEachAndNot(
+        final CompressedBitmap base,
+        final CompressedBitmap[] excluded,
+        final int fromIndex,
+        final int toIndex,
+        final IntConsumer visitor
+    ) {
+        final long[] scratch = SCRATCH.get();
+        int visited = 0;
+        for (int i = 0; i < base.size; i++) {
+            final char key = base.keys[i];
+            base.chunks[i].copyInto(scratch);
+            for (int e = fromIndex; e < toIndex; e++) {
+                final CompressedBitmap other = excluded[e];
+                if (null == other) {
+                    continue;
+                }
+                final int index = other.indexOf(key);
+                if (index >= 0) {
+                    other.chunks[index].clearFrom(scratch);
+                }
+            }
+            final int high = key << 16;
+            for (int word = 0; word < WORDS; word++) {
+                long bits = scratch[word];
+                visited += Long.bitCount(bits);
+                if (null != visitor) {
+                    while (bits != 0) {
+                        visitor.accept(high | word << 6 | Long.numberOfTrailingZeros(bits));
+                        bits &= bits - 1;
+                    }
+                }
+            }
+        }
+        return visited;
+    }
+
+    private int indexOf(final char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    /**
+     * The values sharing one high 16 bits, as a sorted array of low bits or a bitmap, whichever is smaller
+     */
+    private static final class Chunk {
+        private char[] values = new char[4];
+        private long[] words;
+        private int cardinality;
+
+        private boolean add(final char low) {
+            if (null != words) {
+                final long before = words[low >>> 6];
+                words[low >>> 6] = before | 1L << low;
+                if (before == words[low >>> 6]) {
+                    return false;
+                }
+                cardinality++;
+                return true;
+            }
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index >= 0) {
+                return false;
+            }
+            if (cardinality == ARRAY_LIMIT) {
+                toBitmap();
+                return add(low);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, cardinality * 2));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = low;
+            cardinality++;
+            return true;
+        }
+
+        private boolean remove(final char low) {
+            if (null != words) {
+                final long before = words[low >>> 6];
+                words[low >>> 6] = before & ~(1L << low);
+                if (before == words[low >>> 6]) {
+                    return false;
+                }
+                cardinality--;
+                // Only fall back once well below the limit, so a chunk hovering around it doesn't flip every update.
+                if (cardinality < ARRAY_LIMIT / 2) {
+                    toArray();
+                }
+                return true;
+            }
+            final int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+            return true;
+        }
+
+        private boolean contains(final char low) {
+            if (null != words) {
+                return (words[low >>> 6] & 1L << low) != 0;
+            }
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        private void copyInto(final long[] scratch) {
+            if (null != words) {
+                System.arraycopy(words, 0, scratch, 0, WORDS);
+                return;
+            }
+            Arrays.fill(scratch, 0L);
+            for (int i = 0; i < cardinality; i++) {
+                scratch[values[i] >>> 6] |= 1L << values[i];
+            }
+        }
+
+        private void clearFrom(final long[] scratch) {
+            if (null != words) {
+                for (int word = 0; word < WORDS; word++) {
+                    scratch[word] &= ~words[word];
+                }
+                return;
+            }
+            for (int i = 0; i < cardinality; i++) {
+                scratch[values[i] >>> 6] &= ~(1L << values[i]);
+            }
+        }
+
+        private void toBitmap() {
+            words = new long[WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            values = null;
+        }
+
+        private void toArray() {
+            values = new char[cardinality];
+            int index = 0;
+            for (int word = 0; word < WORDS; word++) {
+                long bits = words[word];
+                while (bits != 0) {
+                    values[index++] = (char) (word << 6 | Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+            words = null;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package net.mythoclast.tooltime.reservation;
+
+import net.mythoclast.tooltime.model.Tool;
+import net.mythoclast.tooltime.model.ToolType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.StampedLock;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * Answers which units of a fleet are free across a span of days, without checking units one at a time.
+ * <br>
+ * The fleet is partitioned by ToolType and brand. Each partition numbers its units densely and keeps a
+ * CompressedBitmap of its units, plus one CompressedBitmap per booked day holding the units booked that day.
+ * The units free across a span are those free on every day of it: the partition's units less any booked on one of
+ * the days. That is one pass per 65536-unit chunk, whatever the number of units.
+ * <br>
+ * The index follows an AvailabilityEngine as an AvailabilityListener. When a booking is made or cancelled, the days
+ * it covers are rebuilt for its unit from the bookings the engine holds at that moment, read under the partition
+ * lock. Notifications can arrive out of order, but whichever is applied last reads the engine's latest state, so
+ * the index always settles on what the engine holds. Only registered units are tracked. Each partition has its own lock,
+ * so bookings and searches in different partitions never wait on each other.
+ */
+public final class FleetIndex implements AvailabilityListener {
+
+    private final AvailabilityEngine engine;
+    private final ConcurrentMap<PartitionKey, Partition> partitions = new ConcurrentHashMap<>();
+
+    private FleetIndex(final AvailabilityEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Creates an index following every booking made or cancelled in the given engine
+     * @param engine The AvailabilityEngine holding the bookings. May not be null.
+     * @return The new, empty, index
+     */
+    public static FleetIndex attach(final AvailabilityEngine engine) {
+        if (null == engine) {
+            throw new IllegalArgumentException("A fleet index may not follow a null availability engine.");
+        }
+        final FleetIndex index = new FleetIndex(engine);
+        engine.addListener(index);
+        return index;
+    }
+
+    /**
+     * Adds a unit to the fleet, along with any bookings the engine already holds for it
+     * @param tool The unit to add. May not be null.
+     * @return True if the unit was added, false if it was already in the fleet
+     */
+    public boolean register(final Tool tool) {
+        if (null == tool) {
+            throw new IllegalArgumentException("A null Tool may not join the fleet.");
+        }
+        final Partition partition = partitions.computeIfAbsent(PartitionKey.of(tool), _ -> new Partition());
+        final long stamp = partition.lock.writeLock();
+        try {
+            if (partition.ids.containsKey(tool.code())) {
+                return false;
+            }
+            final int id = partition.units.size();
+            partition.ids.put(tool.code(), id);
+            partition.units.add(tool);
+            partition.members.add(id);
+            // Read under the partition lock, so a booking racing with registration is either in this snapshot
+            // or is applied by its listener call after this returns.
+            for (final Reservation reservation : engine.reservationsFor(tool)) {
+                partition.mark(id, reservation.from().toEpochDay(), reservation.to().toEpochDay(), true);
+            }
+            return true;
+        } finally {
+            partition.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void reserved(final Reservation reservation) {
+        refresh(reservation);
+    }
+
+    @Override
+    public void released(final Reservation reservation) {
+        refresh(reservation);
+    }
+
+    /**
+     * Finds every unit of a ToolType and brand free on every day of a span
+     * @param type The ToolType wanted
+     * @param brand The brand wanted
+     * @param from The first day of the span
+     * @param to The last day of the span, inclusive
+     * @return Every free unit, in the order they were registered
+     */
+    public List<Tool> available(final ToolType type, final String brand, final LocalDate from, final LocalDate to) {
+        final Partition partition = partitions.get(new PartitionKey(type, brand));
+        final List<Tool> free = new ArrayList<>();
+        if (null != partition) {
+            partition.search(from, to, free);
+        }
+        return free;
+    }
+
+    /**
+     * Finds every unit of a ToolType, of any brand, free on every day of a span
+     * @param type The ToolType wanted
+     * @param from The first day of the span
+     * @param to The last day of the span, inclusive
+     * @return Every free unit, grouped by brand, in the order they were registered within each brand
+     */
+    public List<Tool> available(final ToolType type, final LocalDate from, final LocalDate to) {
+        final List<Tool> free = new ArrayList<>();
+        for (final Map.Entry<PartitionKey, Partition> partition : partitions.entrySet()) {
+            if (partition.getKey().type() == type) {
+                partition.getValue().search(from, to, free);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Counts the units of a ToolType and brand free on every day of a span, without listing them
+     * @param type The ToolType wanted
+     * @param brand The brand wanted
+     * @param from The first day of the span
+     * @param to The last day of the span, inclusive
+     * @return How many units are free
+     */
+    public int countAvailable(final ToolType type, final String brand, final LocalDate from, final LocalDate to) {
+        final Partition partition = partitions.get(new PartitionKey(type, brand));
+        return null == partition ? 0 : partition.search(from, to, null);
+    }
+
+    // Rebuilds the changed days of the unit from what the engine holds now, rather than applying the change itself.
+    private void refresh(final Reservation reservation) {
+        final Tool tool = reservation.tool();
+        final Partition partition = partitions.get(PartitionKey.of(tool));
+        if (null == partition) {
+            return;
+        }
+        final long from = reservation.from().toEpochDay();
+        final long to = reservation.to().toEpochDay();
+        final long stamp = partition.lock.writeLock();
+        try {
+            final Integer id = partition.ids.get(tool.code());
+            if (null == id) {
+                return;
+            }
+            partition.mark(id, from, to, false);
+            for (final Reservation booking : engine.reservationsFor(tool, reservation.from(), reservation.to())) {
+                final long bookedFrom = Math.max(from, booking.from().toEpochDay());
+                partition.mark(id, bookedFrom, Math.min(to, booking.to().toEpochDay()), true);
+            }
+        } finally {
+            partition.lock.unlockWrite(stamp);
+        }
+    }
+
+    private record PartitionKey(ToolType type, String brand) {
+        private static PartitionKey of(final Tool tool) {
+            return new PartitionKey(tool.type(), tool.brand());
+        }
+    }
+
+    /**
+     * The units of one ToolType and brand, and which of them are booked on each day
+     */
+    private static final class Partition {
+        private final StampedLock lock = new StampedLock();
+        private final Map<String, Integer> ids = new HashMap<>();
+        // Indexed by unit id.
+        private final List<Tool> units = new ArrayList<>();
+        private final CompressedBitmap members = new CompressedBitmap();
+        // Indexed by epoch day less firstDay. Days with nothing booked are null.
+        private CompressedBitmap[] bookedOn = new CompressedBitmap[0];
+        private long firstDay;
+
+        private void mark(final int id, final long from, final long to, final boolean booked) {
+            if (booked) {
+                cover(from, to);
+            }
+            final long start = Math.max(from, firstDay);
+            final long end = Math.min(to, firstDay + bookedOn.length - 1);
+            for (long day = start; day <= end; day++) {
+                final int slot = (int) (day - firstDay);
+                if (booked) {
+                    if (null == bookedOn[slot]) {
+                        bookedOn[slot] = new CompressedBitmap();
+                    }
+                    bookedOn[slot].add(id);
+                } else if (null != bookedOn[slot] && bookedOn[slot].remove(id) && bookedOn[slot].isEmpty()) {
+                    bookedOn[slot] = null;
+                }
+            }
+        }
+
+        // Grows the booked days to take in the given span, with room to spare so steady bookings rarely copy.
+        private void cover(final long from, final long to) {
+            if (bookedOn.length == 0) {
+                firstDay = from;
+            }
+            final long lastDay = firstDay + bookedOn.length - 1;
+            if (from >= firstDay && to <= lastDay) {
+                return;
+            }
+            final long slack = Math.max(32, bookedOn.length / 2);
+            final long newFirst = from < firstDay ? from - slack : firstDay;
+            final long newLast = to > lastDay ? to + slack : lastDay;
+            final CompressedBitmap[] grown = new CompressedBitmap[Math.toIntExact(newLast - newFirst + 1)];
+            System.arraycopy(bookedOn, 0, grown, (int) (firstDay - newFirst), bookedOn.length);
+            bookedOn = grown;
+            firstDay = newFirst;
+        }
+
+        // Adds the free units to the given list, if there is one, and returns how many there are.
+        private int search(final LocalDate from, final LocalDate to, final List<Tool> free) {
+            if (to.isBefore(from)) {
+                throw new IllegalArgumentException(STR."A search from \{from} may not end before it, on \{to}.");
+            }
+            final long stamp = lock.readLock();
+            try {
+                final long start = Math.max(from.toEpochDay(), firstDay);
+                final long end = Math.min(to.toEpochDay(), firstDay + bookedOn.length - 1);
+                final int fromIndex = (int) Math.min(bookedOn.length, start - firstDay);
+                final int toIndex = (int) Math.max(fromIndex, end - firstDay + 1);
+                return CompressedBitmap.forEachAndNot(
+                    members,
+                    bookedOn,
+                    fromIndex,
+                    toIndex,
+                    null == free ? null : id -> free.add(units.get(id))
+                );
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+}
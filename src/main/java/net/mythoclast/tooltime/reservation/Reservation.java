@@ -0,0 +1,41 @@
+package net.mythoclast.tooltime.reservation;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.Tool;
+
+import java.time.LocalDate;
+
+/**
+ * Describes a Tool being booked for a span of days.
+ *
+ * @param tool The Tool being booked
+ * @param from The first day of the booking
+ * @param to The last day of the booking, inclusive
+ */
+public record Reservation(Tool tool, LocalDate from, LocalDate to) {
+    public Reservation {
+        if (null == tool) {
+            throw new IllegalArgumentException("A reservation may not include a null Tool.");
+        }
+        if (null == from || null == to) {
+            throw new IllegalArgumentException("A reservation may not include a null date.");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("A reservation may not end before it begins.");
+        }
+    }
+
+    /**
+     * Describes the booking a Checkout needs, from its checkout date through its due date
+     * @param checkout The Checkout to book
+     * @return The booking the Checkout needs
+     */
+    public static Reservation of(final Checkout checkout) {
+        // The checkout day is the first rental day, just as RentalAgreement considers it.
+        return new Reservation(
+            checkout.tool(),
+            checkout.checkoutDate(),
+            checkout.checkoutDate().plusDays(checkout.rentalDays() - 1)
+        );
+    }
+}
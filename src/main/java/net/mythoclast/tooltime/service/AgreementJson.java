@@ -0,0 +1,80 @@
+package net.mythoclast.tooltime.service;
+
+import net.mythoclast.tooltime.model.RentalAgreement;
+
+/**
+ * Writes RentalAgreements and errors as JSON. Amounts are whole cents and dates are ISO, as in the priced CSV export.
+ */
+final class AgreementJson {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private AgreementJson() {
+    }
+
+    /**
+     * Appends the JSON object form of a RentalAgreement
+     * @param agreement The agreement to write
+     * @param to Where to write it
+     * @return The given StringBuilder
+     */
+    static StringBuilder agreement(final RentalAgreement agreement, final StringBuilder to) {
+        to.append("{\"toolCode\":");
+        string(agreement.getToolCode(), to).append(",\"toolType\":");
+        string(agreement.getToolDescription(), to).append(",\"toolBrand\":");
+        string(agreement.getToolBrand(), to);
+        return to.append(",\"rentalDays\":").append(agreement.getRentalDays())
+            .append(",\"checkoutDate\":\"").append(agreement.getCheckoutDate())
+            .append("\",\"dueDate\":\"").append(agreement.getDueDate())
+            .append("\",\"dailyRentalCents\":").append(agreement.getDailyRentalCents())
+            .append(",\"chargeableDays\":").append(agreement.getChargeableDays())
+            .append(",\"preDiscountCents\":").append(agreement.getPreDiscountCharge())
+            .append(",\"discountPercent\":").append(agreement.getDiscountPercent())
+            .append(",\"promotionPercent\":").append(agreement.getPromotionPercent())
+            .append(",\"discountCents\":").append(agreement.getDiscountAmount())
+            .append(",\"finalCents\":").append(agreement.getFinalCharge())
+            .append('}');
+    }
+
+    /**
+     * Appends a JSON object holding only an error message
+     * @param message What went wrong
+     * @param to Where to write it
+     * @return The given StringBuilder
+     */
+    static StringBuilder error(final String message, final StringBuilder to) {
+        to.append("{\"error\":");
+        return string(message, to).append('}');
+    }
+
+    /**
+     * Appends a JSON string, escaped as needed
+     * @param value The text to write. Null is written as JSON null.
+     * @param to Where to write it
+     * @return The given StringBuilder
+     */
+    static StringBuilder string(final String value, final StringBuilder to) {
+        if (null == value) {
+            return to.append("null");
+        }
+        to.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"' -> to.append("\\\"");
+                case '\\' -> to.append("\\\\");
+                case '\n' -> to.append("\\n");
+                case '\r' -> to.append("\\r");
+                case '\t' -> to.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        to.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        to.append(c);
+                    }
+                }
+            }
+        }
+        return to.append('"');
+    }
+}
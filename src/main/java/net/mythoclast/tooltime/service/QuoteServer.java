@@ -0,0 +1,285 @@
+package net.mythoclast.tooltime.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.mythoclast.tooltime.batch.BatchPricer;
+import net.mythoclast.tooltime.batch.PricingResult;
+import net.mythoclast.tooltime.csv.CheckoutCsvReader;
+import net.mythoclast.tooltime.csv.CsvRow;
+import net.mythoclast.tooltime.metrics.LatencySnapshot;
+import net.mythoclast.tooltime.metrics.PricingMetrics;
+import net.mythoclast.tooltime.metrics.PricingStage;
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.QuoteCache;
+import net.mythoclast.tooltime.model.RegionCalendars;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.Tool;
+import net.mythoclast.tooltime.model.ToolRegistry;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.lang.StringTemplate.STR;
+
+/**
+ * Serves price quotes as JSON over HTTP, one virtual thread per request.
+ * <ul>
+ *     <li>{@code GET /quote?tool=LADW&days=3&discount=10&date=2020-07-02} quotes one Checkout.
+ *     The discount defaults to 0, and an optional {@code region} picks the holidays observed.</li>
+ *     <li>{@code POST /quotes} quotes every line of a CSV body, in the form read by CheckoutCsvReader. The response
+ *     is an array holding, for each line, its number and either its quote or why it could not be quoted.</li>
+ *     <li>{@code GET /metrics} reports the latencies recorded by PricingMetrics for each pricing stage,
+ *     in nanoseconds, and the statistics of the shared QuoteCache. Latencies are all zero unless metrics
+ *     are enabled.</li>
+ * </ul>
+ * A quote that cannot be made is answered with status 400 and an {@code error} message. Nothing is reserved
+ * or recorded by quoting.
+ */
+public final class QuoteServer implements AutoCloseable {
+
+    private static final int BACKLOG = 4096;
+    // Enough for a few hundred lines at a time, and small enough that thousands of open requests stay cheap.
+    private static final int BATCH_BUFFER_SIZE = 16 * 1024;
+    private static final int BATCH_CHUNK_ROWS = 1024;
+    private static final int MAX_BATCH_ROWS = 100_000;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ToolRegistry registry;
+    private final BatchPricer pricer;
+
+    private QuoteServer(final HttpServer server, final ToolRegistry registry) {
+        this.server = server;
+        this.registry = registry;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.pricer = new BatchPricer(BatchPricer.Mode.THROUGHPUT);
+        server.setExecutor(executor);
+        server.createContext("/quote", this::quote);
+        server.createContext("/quotes", this::quotes);
+        server.createContext("/metrics", QuoteServer::metrics);
+    }
+
+    /**
+     * Starts serving quotes
+     * @param address Where to listen. Port 0 picks a free port.
+     * @param registry Where to find Tools by code
+     * @return The running server
+     * @throws IOException If the address cannot be bound
+     */
+    public static QuoteServer start(final InetSocketAddress address, final ToolRegistry registry) throws IOException {
+        if (null == registry) {
+            throw new IllegalArgumentException("A quote server may not use a null registry.");
+        }
+        final QuoteServer quoteServer = new QuoteServer(HttpServer.create(address, BACKLOG), registry);
+        quoteServer.server.start();
+        return quoteServer;
+    }
+
+    /**
+     * Returns the address the server is listening on
+     * @return The address the server is listening on
+     */
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    /**
+     * Stops accepting requests, lets those in flight finish, and shuts down
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.close();
+    }
+
+    private void quote(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, AgreementJson.error("Quotes are requested with GET.", new StringBuilder()));
+                return;
+            }
+            final Checkout checkout;
+            try {
+                checkout = checkoutOf(query(exchange.getRequestURI().getRawQuery()));
+            } catch (final IllegalArgumentException | DateTimeException e) {
+                respond(exchange, 400, AgreementJson.error(e.getMessage(), new StringBuilder()));
+                return;
+            }
+            final RentalAgreement agreement;
+            try {
+                agreement = RentalAgreement.promoted(checkout);
+            } catch (final IllegalArgumentException | ArithmeticException | DateTimeException e) {
+                // A rental too long or too costly to price, or that runs off the calendar.
+                respond(exchange, 400, AgreementJson.error(e.getMessage(), new StringBuilder()));
+                return;
+            } catch (final RuntimeException e) {
+                respond(exchange, 500, AgreementJson.error(STR."Could not price the quote: \{e}", new StringBuilder()));
+                return;
+            }
+            respond(exchange, 200, AgreementJson.agreement(agreement, new StringBuilder(384)));
+        }
+    }
+
+    private void quotes(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, AgreementJson.error("Batch quotes are requested with POST.", new StringBuilder()));
+                return;
+            }
+            final StringBuilder json = new StringBuilder(4096).append('[');
+            final List<CsvRow> rows = new ArrayList<>(BATCH_CHUNK_ROWS);
+            final List<Checkout> checkouts = new ArrayList<>(BATCH_CHUNK_ROWS);
+            int total = 0;
+            try (final CheckoutCsvReader reader = new CheckoutCsvReader(
+                Channels.newChannel(exchange.getRequestBody()), registry, BATCH_BUFFER_SIZE
+            )) {
+                while (reader.read(rows, BATCH_CHUNK_ROWS) > 0) {
+                    total += rows.size();
+                    if (total > MAX_BATCH_ROWS) {
+                        respond(exchange, 413, AgreementJson.error(
+                            STR."A batch may hold at most \{MAX_BATCH_ROWS} lines.", new StringBuilder()
+                        ));
+                        return;
+                    }
+                    for (final CsvRow row : rows) {
+                        if (row instanceof CsvRow.Parsed parsed) {
+                            checkouts.add(parsed.checkout());
+                        }
+                    }
+                    final List<PricingResult> results = pricer.price(checkouts);
+                    int next = 0;
+                    for (final CsvRow row : rows) {
+                        line(json, row.lineNumber());
+                        switch (row) {
+                            case CsvRow.Rejected rejected ->
+                                AgreementJson.string(rejected.reason(), json.append("\"error\":"));
+                            case CsvRow.Parsed _ -> {
+                                switch (results.get(next++)) {
+                                    case PricingResult.Priced priced ->
+                                        AgreementJson.agreement(priced.agreement(), json.append("\"quote\":"));
+                                    case PricingResult.Failed failed ->
+                                        AgreementJson.string(failed.error().getMessage(), json.append("\"error\":"));
+                                }
+                            }
+                        }
+                        json.append('}');
+                    }
+                    rows.clear();
+                    checkouts.clear();
+                }
+            } catch (final IOException e) {
+                respond(exchange, 400, AgreementJson.error(e.getMessage(), new StringBuilder()));
+                return;
+            } catch (final RuntimeException e) {
+                // Pricing failures are reported line by line, so anything reaching here is the server's own fault.
+                respond(exchange, 500, AgreementJson.error(STR."Could not price the batch: \{e}", new StringBuilder()));
+                return;
+            }
+            respond(exchange, 200, json.append(']'));
+        }
+    }
+
+    private static void metrics(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            final StringBuilder json = new StringBuilder(512).append("{\"enabled\":").append(PricingMetrics.isEnabled());
+            for (final Map.Entry<PricingStage, LatencySnapshot> entry : PricingMetrics.snapshot().entrySet()) {
+                final LatencySnapshot snapshot = entry.getValue();
+                json.append(',');
+                AgreementJson.string(entry.getKey().name(), json).append(":{\"count\":").append(snapshot.count())
+                    .append(",\"meanNanos\":").append(snapshot.meanNanos())
+                    .append(",\"p50Nanos\":").append(snapshot.p50Nanos())
+                    .append(",\"p99Nanos\":").append(snapshot.p99Nanos())
+                    .append(",\"p999Nanos\":").append(snapshot.p999Nanos())
+                    .append(",\"maxNanos\":").append(snapshot.maxNanos())
+                    .append('}');
+            }
+            final QuoteCache.Stats cache = QuoteCache.shared().stats();
+            json.append(",\"quoteCache\":{\"hits\":").append(cache.hits())
+                .append(",\"misses\":").append(cache.misses())
+                .append(",\"evictions\":").append(cache.evictions())
+                .append(",\"invalidations\":").append(cache.invalidations())
+                .append(",\"size\":").append(cache.size())
+                .append('}');
+            respond(exchange, 200, json.append('}'));
+        }
+    }
+
+    private static StringBuilder line(final StringBuilder json, final long lineNumber) {
+        if (json.length() > 1) {
+            json.append(',');
+        }
+        return json.append("{\"line\":").append(lineNumber).append(',');
+    }
+
+    private Checkout checkoutOf(final Map<String, String> query) {
+        final String code = required(query, "tool");
+        final Tool tool = registry.lookup(code).orElseThrow(
+            () -> new IllegalArgumentException(STR."Unknown tool code `\{code}`.")
+        );
+        final String region = query.getOrDefault("region", RegionCalendars.DEFAULT_REGION);
+        // Looked up here, so an unknown region is refused along with every other bad parameter.
+        RegionCalendars.defaultRegions().forRegion(region);
+        return new Checkout(
+            tool,
+            number("days", required(query, "days")),
+            number("discount", query.getOrDefault("discount", "0")),
+            LocalDate.parse(required(query, "date")),
+            region
+        );
+    }
+
+    private static String required(final Map<String, String> query, final String name) {
+        final String value = query.get(name);
+        if (null == value || value.isEmpty()) {
+            throw new IllegalArgumentException(STR."Query parameter `\{name}` is required.");
+        }
+        return value;
+    }
+
+    private static int number(final String name, final String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException(STR."Query parameter `\{name}` must be a whole number.");
+        }
+    }
+
+    private static Map<String, String> query(final String rawQuery) {
+        final Map<String, String> query = new HashMap<>();
+        if (null == rawQuery) {
+            return query;
+        }
+        for (final String pair : rawQuery.split("&")) {
+            final int equals = pair.indexOf('=');
+            if (equals > 0) {
+                query.put(
+                    URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8)
+                );
+            }
+        }
+        return query;
+    }
+
+    private static void respond(final HttpExchange exchange, final int status, final CharSequence json)
+        throws IOException {
+        final byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (final OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.journal.AgreementJournal;
+import net.mythoclast.tooltime.journal.JournalEntry;
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.Promotion;
+import net.mythoclast.tooltime.model.Promotions;
+import net.mythoclast.tooltime.model.RegionCalendars;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.ToolRegistry;
+import net.mythoclast.tooltime.model.Tools;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class AgreementJournalTest {
+
+    /**
+     * Agreements appended, committed and replayed come back exactly as they were priced, in the region they were
+     * priced in, and reopening a journal carries on after its last record.
+     */
+    @Test
+    public void testAppendCommitReplay() throws IOException {
+        final Path path = Files.createTempFile("agreements", ".journal");
+        RegionCalendars.defaultRegions().registerAll(RegionCalendars.parse(new StringReader("CA-ON = JULY 1")));
+        try {
+            final List<RentalAgreement> written = new ArrayList<>();
+            try (final AgreementJournal journal = AgreementJournal.open(path, 100)) {
+                for (int i = 0; i < 250; i++) {
+                    final RentalAgreement agreement = new RentalAgreement(new Checkout(
+                        Tools.values()[i % Tools.values().length].getTool(),
+                        1 + i % 30,
+                        i % 101,
+                        LocalDate.of(2015, Month.JULY, 2).plusDays(i),
+                        i % 3 == 0 ? "CA-ON" : RegionCalendars.DEFAULT_REGION
+                    ));
+                    assertEquals(i + 1, journal.append(agreement));
+                    written.add(agreement);
+                }
+            }
+            try (final AgreementJournal journal = AgreementJournal.open(path)) {
+                assertEquals(250, journal.size());
+                final RentalAgreement agreement = RentalAgreement.promoted(
+                    new Checkout(Tools.LADW.getTool(), 3, 10, LocalDate.of(2020, Month.JULY, 2)),
+                    Promotions.compile(List.of(new Promotion("SALE", 5)))
+                );
+                assertEquals(251, journal.append(agreement));
+                written.add(agreement);
+            }
+
+            final List<RentalAgreement> replayed = new ArrayList<>();
+            final long count = AgreementJournal.replay(
+                path, entry -> replayed.add(entry.toAgreement(ToolRegistry.defaultRegistry()))
+            );
+            assertEquals(251, count);
+            assertEquals(written, replayed);
+        } finally {
+            RegionCalendars.defaultRegions().unregister("CA-ON");
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * A record damaged after it was written, as by a crash mid-write, ends the replay.
+     */
+    @Test
+    public void testReplayStopsAtDamagedRecord() throws IOException {
+        final Path path = Files.createTempFile("agreements", ".journal");
+        try {
+            try (final AgreementJournal journal = AgreementJournal.open(path)) {
+                for (int i = 0; i < 3; i++) {
+                    journal.append(new RentalAgreement(
+                        new Checkout(Tools.JAKD.getTool(), 6, 0, LocalDate.of(2015, Month.SEPTEMBER, 3))
+                    ));
+                }
+            }
+            try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                // Scribble over the rental days of the second record.
+                channel.write(ByteBuffer.wrap(new byte[] { 0x7F }), 64 + 104 + 32);
+            }
+            final List<JournalEntry> entries = new ArrayList<>();
+            assertEquals(1, AgreementJournal.replay(path, entries::add));
+            assertEquals("JAKD", entries.getFirst().toolCode());
+            try (final AgreementJournal journal = AgreementJournal.open(path)) {
+                assertEquals(1, journal.size());
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Appending after a torn record in the middle of a journal replaces it and everything after it for good.
+     */
+    @Test
+    public void testAppendAfterTornRecordDiscardsTail() throws IOException {
+        final Path path = Files.createTempFile("agreements", ".journal");
+        try {
+            try (final AgreementJournal journal = AgreementJournal.open(path)) {
+                for (int days = 1; days <= 3; days++) {
+                    journal.append(new RentalAgreement(
+                        new Checkout(Tools.JAKD.getTool(), days, 0, LocalDate.of(2015, Month.SEPTEMBER, 3))
+                    ));
+                }
+            }
+            try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[] { 0x7F }), 64 + 104 + 32);
+            }
+            try (final AgreementJournal journal = AgreementJournal.open(path)) {
+                assertEquals(2, journal.append(new RentalAgreement(
+                    new Checkout(Tools.LADW.getTool(), 9, 0, LocalDate.of(2015, Month.SEPTEMBER, 3))
+                )));
+            }
+            final List<JournalEntry> entries = new ArrayList<>();
+            assertEquals(2, AgreementJournal.replay(path, entries::add));
+            assertEquals(1, entries.get(0).rentalDays());
+            assertEquals("LADW", entries.get(1).toolCode());
+            try (final AgreementJournal journal = AgreementJournal.open(path)) {
+                assertEquals(2, journal.size());
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.model.Amendment;
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.Tools;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Month;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class AmendmentTest {
+
+    /**
+     * Extending or shortening a rental prices the same as checking out the amended length from scratch,
+     * across weekends and holidays, for every tool and many discounts.
+     */
+    @Test
+    public void testMatchesFreshPricing() {
+        final LocalDate start = LocalDate.of(2015, Month.JUNE, 25);
+        for (final Tools tool : Tools.values()) {
+            for (int rentalDays = 1; rentalDays <= 20; rentalDays++) {
+                final int discount = rentalDays * 7 % 101;
+                final RentalAgreement agreement = new RentalAgreement(
+                        new Checkout(tool.getTool(), rentalDays, discount, start)
+                );
+                for (int amendedDays = 1; amendedDays <= 80; amendedDays += 3) {
+                    final RentalAgreement fresh = new RentalAgreement(
+                            new Checkout(tool.getTool(), amendedDays, discount, start)
+                    );
+                    assertEquals(fresh, agreement.amend(amendedDays).amended());
+                }
+            }
+        }
+    }
+
+    /**
+     * An extension over the July 4th weekend and an early return report their changes as amended minus original.
+     */
+    @Test
+    public void testChanges() {
+        final RentalAgreement agreement = new RentalAgreement(
+                new Checkout(Tools.JAKR.getTool(), 2, 10, LocalDate.of(2015, Month.JULY, 1))
+        );
+        // Jackhammers charge weekdays only. July 3rd is the observed holiday, July 4th and 5th are a weekend.
+        final Amendment extension = agreement.extend(5);
+        assertEquals(5, extension.getRentalDaysChange());
+        assertEquals(2, extension.getChargeableDaysChange());
+        assertEquals(LocalDate.of(2015, Month.JULY, 7), extension.amended().getDueDate());
+        assertEquals(598, extension.getPreDiscountChange());
+        assertEquals(60, extension.getDiscountChange());
+        assertEquals(538, extension.getFinalChargeChange());
+
+        final Amendment earlyReturn = extension.amended().returnOn(LocalDate.of(2015, Month.JULY, 1));
+        assertEquals(-6, earlyReturn.getRentalDaysChange());
+        assertEquals(-3, earlyReturn.getChargeableDaysChange());
+        assertEquals("-$8.07", earlyReturn.getPrettyFinalChargeChange());
+
+        assertThrows(IllegalArgumentException.class, () -> agreement.extend(0));
+        assertThrows(IllegalArgumentException.class, () -> agreement.returnOn(LocalDate.of(2015, Month.JUNE, 30)));
+        assertThrows(IllegalArgumentException.class, () -> agreement.returnOn(LocalDate.of(2015, Month.JULY, 3)));
+    }
+}
@@ -0,0 +1,63 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.Tool;
+import net.mythoclast.tooltime.model.ToolType;
+import net.mythoclast.tooltime.model.Tools;
+import net.mythoclast.tooltime.reservation.AvailabilityEngine;
+import net.mythoclast.tooltime.reservation.Reservation;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AvailabilityEngineTest {
+
+    /**
+     * Bookings touching the same day conflict, bookings on adjacent days do not, and released days free up.
+     */
+    @Test
+    public void testOverlappingBookingsConflict() {
+        final AvailabilityEngine engine = new AvailabilityEngine();
+        final Tool tool = Tools.JAKR.getTool();
+        final Reservation july = engine.tryReserve(
+            new Checkout(tool, 9, 0, LocalDate.of(2015, Month.JULY, 2))
+        ).orElseThrow();
+        assertEquals(LocalDate.of(2015, Month.JULY, 10), july.to());
+
+        assertTrue(engine.tryReserve(new Checkout(tool, 1, 0, LocalDate.of(2015, Month.JULY, 10))).isEmpty());
+        assertTrue(engine.tryReserve(new Checkout(tool, 3, 0, LocalDate.of(2015, Month.JUNE, 30))).isEmpty());
+        assertTrue(engine.tryReserve(new Checkout(tool, 2, 0, LocalDate.of(2015, Month.JUNE, 30))).isPresent());
+        assertTrue(engine.tryReserve(new Checkout(tool, 5, 0, LocalDate.of(2015, Month.JULY, 11))).isPresent());
+        assertTrue(engine.isAvailable(Tools.JAKD.getTool(), july.from(), july.to()));
+        assertFalse(engine.isAvailable(tool, LocalDate.of(2015, Month.JULY, 5), LocalDate.of(2015, Month.JULY, 5)));
+
+        assertTrue(engine.release(july));
+        assertFalse(engine.release(july));
+        assertTrue(engine.isAvailable(tool, july.from(), july.to()));
+        assertEquals(2, engine.reservationsFor(tool).size());
+    }
+
+    /**
+     * Many counters racing to book the same Tool for the same week must result in exactly one booking.
+     */
+    @Test
+    public void testConcurrentBookingsHaveOneWinner() {
+        final AvailabilityEngine engine = new AvailabilityEngine();
+        final Tool tool = new Tool("LADW-RACE", ToolType.LADDER, "Werner");
+        final AtomicInteger booked = new AtomicInteger();
+        IntStream.range(0, 10_000).parallel().forEach(i -> {
+            final Checkout checkout = new Checkout(tool, 7, 0, LocalDate.of(2020, Month.JULY, 1).plusDays(i % 7));
+            if (engine.tryReserve(checkout).isPresent()) {
+                booked.incrementAndGet();
+            }
+        });
+        assertEquals(1, booked.get());
+    }
+}
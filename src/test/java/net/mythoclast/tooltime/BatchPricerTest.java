@@ -0,0 +1,64 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.batch.BatchPricer;
+import net.mythoclast.tooltime.batch.PricingResult;
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.Tools;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public final class BatchPricerTest {
+
+    /**
+     * Prices enough Checkouts to force the batch to split across tasks, with one bad row in the middle.
+     * Every result must line up with its Checkout, and the bad row must not stop the others from pricing.
+     */
+    @Test
+    public void testBatchKeepsOrderAndReportsFailuresInPlace() {
+        final List<Checkout> checkouts = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            checkouts.add(new Checkout(
+                Tools.values()[i % Tools.values().length].getTool(),
+                1 + i % 40,
+                i % 101,
+                LocalDate.of(2015, Month.JANUARY, 1).plusDays(i)
+            ));
+        }
+        checkouts.set(2500, null);
+
+        final List<PricingResult> results = new BatchPricer(BatchPricer.Mode.THROUGHPUT).price(checkouts);
+
+        assertEquals(checkouts.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).index());
+            if (i == 2500) {
+                assertInstanceOf(PricingResult.Failed.class, results.get(i));
+                continue;
+            }
+            final PricingResult.Priced priced = (PricingResult.Priced) results.get(i);
+            assertEquals(new RentalAgreement(checkouts.get(i)), priced.agreement());
+            assertNull(priced.report());
+        }
+    }
+
+    /**
+     * Full mode renders the same report a lone RentalAgreement would.
+     */
+    @Test
+    public void testFullModeRendersReports() {
+        final Checkout checkout = new Checkout(Tools.LADW.getTool(), 3, 10, LocalDate.of(2020, Month.JULY, 2));
+        final PricingResult.Priced priced = (PricingResult.Priced) new BatchPricer(BatchPricer.Mode.FULL)
+            .price(new Checkout[] { checkout })
+            .getFirst();
+        assertEquals(new RentalAgreement(checkout).getReport(), priced.report());
+    }
+}
@@ -0,0 +1,101 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.model.ChargeableDays;
+import net.mythoclast.tooltime.model.Holiday;
+import net.mythoclast.tooltime.model.HolidayCalendar;
+import net.mythoclast.tooltime.model.Rate;
+import net.mythoclast.tooltime.model.ToolType;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class ChargeableDaysTest {
+
+    /**
+     * A two-year Ladder rental covers two Independence Days and two Labor Days, all of which must be un-billed.
+     * <br>
+     * 2015: July 3rd (observed, the 4th is a Saturday) and September 7th.
+     * 2016: July 4th and September 5th.
+     */
+    @Test
+    public void testMultiYearRentalExcludesEveryObservedHoliday() {
+        assertEquals(
+            726,
+            ChargeableDays.count(
+                ToolType.LADDER,
+                LocalDate.of(2015, Month.JANUARY, 1),
+                LocalDate.of(2016, Month.DECEMBER, 30)
+            )
+        );
+    }
+
+    /**
+     * Compares the arithmetic count against a plain walk over every day, for every ToolType,
+     * every start day across several years, and rental lengths from one day to a little over a year.
+     */
+    @Test
+    public void testMatchesDayByDayWalk() {
+        final LocalDate firstStart = LocalDate.of(2014, Month.DECEMBER, 20);
+        for (final ToolType toolType : ToolType.values()) {
+            for (int offset = 0; offset < 3 * 365; offset += 3) {
+                final LocalDate from = firstStart.plusDays(offset);
+                for (int length = 1; length <= 400; length += 7) {
+                    final LocalDate to = from.plusDays(length - 1);
+                    assertEquals(
+                        walk(toolType, from, to),
+                        ChargeableDays.count(toolType, from, to),
+                        toolType + " " + from + " " + to
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Rates charging on arbitrary days of the week, such as Tuesdays and Thursdays only, count the same way.
+     */
+    @Test
+    public void testArbitraryChargeDaysMatchDayByDayWalk() {
+        final LocalDate firstStart = LocalDate.of(2015, Month.JUNE, 1);
+        for (int mask = 0; mask < 128; mask += 5) {
+            final Rate rate = new Rate("Test", 100, mask, false);
+            for (int offset = 0; offset < 120; offset++) {
+                final LocalDate from = firstStart.plusDays(offset);
+                for (int length = 1; length <= 30; length++) {
+                    final LocalDate to = from.plusDays(length - 1);
+                    int expected = 0;
+                    for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                        if (rate.chargesOn(date.getDayOfWeek()) && !HolidayCalendar.standard().isObserved(date)) {
+                            expected++;
+                        }
+                    }
+                    assertEquals(expected, ChargeableDays.count(rate, from, to), mask + " " + from + " " + to);
+                }
+            }
+        }
+    }
+
+    private static int walk(final ToolType toolType, final LocalDate from, final LocalDate to) {
+        int chargeable = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            final LocalDate current = date;
+            final boolean holiday = Arrays.stream(Holiday.values()).anyMatch(
+                h -> h.forYear(current.getYear()).equals(current)
+            );
+            if (holiday && !toolType.doesChargeForHolidays()) {
+                continue;
+            }
+            final boolean weekend = date.getDayOfWeek() == DayOfWeek.SATURDAY
+                || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+            if (weekend ? toolType.doesChargeForWeekends() : toolType.doesChargeForWeekdays()) {
+                chargeable++;
+            }
+        }
+        return chargeable;
+    }
+}
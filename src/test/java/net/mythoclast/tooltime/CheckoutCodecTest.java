@@ -0,0 +1,115 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.codec.CheckoutCodec;
+import net.mythoclast.tooltime.codec.CheckoutView;
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.Tool;
+import net.mythoclast.tooltime.model.ToolCodes;
+import net.mythoclast.tooltime.model.ToolRegistry;
+import net.mythoclast.tooltime.model.ToolType;
+import net.mythoclast.tooltime.model.Tools;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CheckoutCodecTest {
+
+    /**
+     * Checkouts and agreements round-trip exactly, in bulk, including unpackable codes, other regions and old dates,
+     * and a typical Checkout takes 9 bytes.
+     */
+    @Test
+    public void testRoundTrip() {
+        final ToolRegistry registry = new ToolRegistry();
+        registry.registerAll(List.of(Tools.values()).stream().map(Tools::getTool).toList());
+        final Tool oddCode = registry.register(new Tool("ladder-7", ToolType.LADDER, "Werner"));
+        final List<Checkout> checkouts = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            checkouts.add(new Checkout(
+                i % 7 == 0 ? oddCode : Tools.values()[i % Tools.values().length].getTool(),
+                1 + i * 37 % 400,
+                i % 101,
+                LocalDate.of(1890, Month.JANUARY, 1).plusDays(i * 97L),
+                i % 3 == 0 ? "CA-ON" : "US"
+            ));
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(32 * 1024);
+        CheckoutCodec.encodeAll(checkouts, buffer);
+        buffer.flip();
+        final Checkout[] decoded = new Checkout[2000];
+        assertEquals(1000, CheckoutCodec.decodeAll(buffer, registry, decoded));
+        assertEquals(checkouts, Arrays.asList(decoded).subList(0, 1000));
+
+        final ByteBuffer single = ByteBuffer.allocateDirect(64);
+        final RentalAgreement agreement = new RentalAgreement(
+            new Checkout(Tools.LADW.getTool(), 3, 10, LocalDate.of(2020, Month.JULY, 2))
+        );
+        CheckoutCodec.encode(agreement.checkout(), single);
+        assertEquals(9, single.position());
+        single.clear();
+        CheckoutCodec.encode(agreement, single);
+        single.flip();
+        assertEquals(agreement, CheckoutCodec.decodeAgreement(single, registry));
+    }
+
+    /**
+     * A view steps through encoded Checkouts reading the same fields the records hold.
+     */
+    @Test
+    public void testView() {
+        final List<Checkout> checkouts = List.of(
+            new Checkout(Tools.CHNS.getTool(), 5, 25, LocalDate.of(2015, Month.JULY, 2)),
+            new Checkout(Tools.JAKR.getTool(), 9, 0, LocalDate.of(1965, Month.JULY, 2), "CA-ON")
+        );
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        CheckoutCodec.encodeAll(checkouts, buffer);
+        final MemorySegment segment = MemorySegment.ofArray(buffer.array()).asSlice(0, buffer.position());
+
+        final CheckoutView view = new CheckoutView().wrap(segment, 0);
+        assertEquals(ToolCodes.pack("CHNS"), view.toolKey());
+        assertEquals(LocalDate.of(2015, Month.JULY, 2).toEpochDay(), view.checkoutEpochDay());
+        assertEquals(checkouts.get(0), view.toCheckout(ToolRegistry.defaultRegistry()));
+
+        view.next();
+        assertEquals("JAKR", view.toolCode());
+        assertEquals(9, view.rentalDays());
+        assertEquals("CA-ON", view.region());
+        assertEquals(checkouts.get(1), view.toCheckout(ToolRegistry.defaultRegistry()));
+        assertFalse(view.hasNext());
+    }
+
+    /**
+     * A view refuses a string whose length runs past the segment or decodes as negative, instead of skipping it.
+     */
+    @Test
+    public void testViewRejectsBadStringLengths() {
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        CheckoutCodec.encode(new Checkout(Tools.CHNS.getTool(), 5, 25, LocalDate.of(2015, Month.JULY, 2)), buffer);
+        final byte[] encoded = Arrays.copyOf(buffer.array(), buffer.position());
+
+        // The default region is written last, as a length of 0.
+        final byte[] oversized = encoded.clone();
+        oversized[oversized.length - 1] = 0x7F;
+        assertThrows(
+            IndexOutOfBoundsException.class, () -> new CheckoutView().wrap(MemorySegment.ofArray(oversized), 0)
+        );
+
+        final byte[] negative = Arrays.copyOf(encoded, encoded.length + 9);
+        Arrays.fill(negative, encoded.length - 1, negative.length - 1, (byte) 0xFF);
+        negative[negative.length - 1] = 0x01;
+        assertThrows(
+            IllegalArgumentException.class, () -> new CheckoutView().wrap(MemorySegment.ofArray(negative), 0)
+        );
+    }
+}
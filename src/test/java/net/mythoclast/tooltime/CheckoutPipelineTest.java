@@ -0,0 +1,184 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.journal.AgreementJournal;
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.Tools;
+import net.mythoclast.tooltime.pipeline.AgreementSink;
+import net.mythoclast.tooltime.pipeline.CheckoutPipeline;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import static java.lang.StringTemplate.STR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class CheckoutPipelineTest {
+
+    /**
+     * Every submission is priced and journaled in fewer batches than submissions, and bad checkouts fail alone.
+     */
+    @Test
+    public void testPricesAndPersistsInBatches() throws Exception {
+        final Path path = Files.createTempFile("pipeline", ".journal");
+        try {
+            final List<CompletableFuture<RentalAgreement>> futures = new ArrayList<>();
+            final CheckoutPipeline pipeline;
+            try (final AgreementJournal journal = AgreementJournal.open(path)) {
+                pipeline = new CheckoutPipeline(AgreementSink.journal(journal), 256, 64, 4);
+                try (pipeline) {
+                    for (int i = 0; i < 5_000; i++) {
+                        futures.add(pipeline.submit(new Checkout(
+                            Tools.values()[i % Tools.values().length].getTool(),
+                            1 + i % 10,
+                            0,
+                            LocalDate.of(2015, Month.JULY, 1).plusDays(i % 60),
+                            i == 1234 ? "NOWHERE" : "US"
+                        )));
+                    }
+                }
+                assertEquals(4_999, journal.size());
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                if (i == 1234) {
+                    final ExecutionException failed = assertThrows(ExecutionException.class, futures.get(i)::get);
+                    assertInstanceOf(IllegalArgumentException.class, failed.getCause());
+                } else {
+                    assertEquals(1 + i % 10, futures.get(i).get().getRentalDays());
+                }
+            }
+            assertTrue(pipeline.batches() < 5_000);
+            assertThrows(IllegalStateException.class, () -> pipeline.submit(ladderCheckout()));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * A full queue declines further submissions instead of growing, and a failed persist fails the whole batch.
+     */
+    @Test
+    public void testBackpressureAndFailedPersist() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CheckoutPipeline pipeline = new CheckoutPipeline(batch -> {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Disk full.");
+        }, 2, 1, 1);
+        final List<CompletableFuture<RentalAgreement>> accepted = new ArrayList<>();
+        try (pipeline) {
+            // One is taken by the stalled worker, two fill the queue; after that there is no room.
+            while (accepted.size() < 10) {
+                final Optional<CompletableFuture<RentalAgreement>> submitted = pipeline.trySubmit(ladderCheckout());
+                if (submitted.isEmpty()) {
+                    break;
+                }
+                accepted.add(submitted.get());
+            }
+            assertTrue(accepted.size() <= 3);
+            assertFalse(pipeline.trySubmit(ladderCheckout()).isPresent());
+            release.countDown();
+        }
+        for (final CompletableFuture<RentalAgreement> future : accepted) {
+            final ExecutionException failed = assertThrows(ExecutionException.class, future::get);
+            assertEquals("Disk full.", failed.getCause().getMessage());
+        }
+    }
+
+    /**
+     * An Error thrown while persisting fails the batch instead of killing its worker, so closing still finishes.
+     */
+    @Test
+    public void testErrorInPersistFailsBatch() throws Exception {
+        final CheckoutPipeline pipeline = new CheckoutPipeline(batch -> {
+            throw new OutOfMemoryError("No room.");
+        }, 4, 2, 1);
+        final List<CompletableFuture<RentalAgreement>> accepted = new ArrayList<>();
+        try (pipeline) {
+            for (int i = 0; i < 8; i++) {
+                accepted.add(pipeline.submit(ladderCheckout()));
+            }
+        }
+        for (final CompletableFuture<RentalAgreement> future : accepted) {
+            final ExecutionException failed = assertThrows(ExecutionException.class, future::get);
+            assertInstanceOf(OutOfMemoryError.class, failed.getCause());
+        }
+    }
+
+    /**
+     * Submitters racing with close() are either refused or have their Checkout completed, never left waiting.
+     */
+    @Test
+    public void testSubmitRacingClose() throws Exception {
+        final CheckoutPipeline pipeline = new CheckoutPipeline(_ -> { }, 1, 1, 1);
+        final List<CompletableFuture<RentalAgreement>> accepted = new CopyOnWriteArrayList<>();
+        final List<Thread> submitters = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            submitters.add(Thread.ofVirtual().start(() -> {
+                try {
+                    for (int j = 0; j < 100; j++) {
+                        accepted.add(pipeline.submit(ladderCheckout()));
+                    }
+                } catch (final IllegalStateException | InterruptedException e) {
+                    // Closed while submitting.
+                }
+            }));
+        }
+        pipeline.close();
+        for (final Thread submitter : submitters) {
+            submitter.join();
+        }
+        for (final CompletableFuture<RentalAgreement> future : accepted) {
+            assertTrue(future.isDone());
+        }
+    }
+
+    /**
+     * Closing a pipeline with more workers than queue room finishes, with every worker taking only its own
+     * shutdown marker.
+     */
+    @Test
+    public void testCloseWithMoreWorkersThanRoom() throws Exception {
+        for (int round = 0; round < 500; round++) {
+            final CheckoutPipeline pipeline = new CheckoutPipeline(_ -> { }, 1, 4, 8);
+            final List<CompletableFuture<RentalAgreement>> accepted = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                accepted.add(pipeline.submit(ladderCheckout()));
+            }
+            final Thread closer = Thread.ofVirtual().start(() -> {
+                try {
+                    pipeline.close();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertTrue(closer.join(Duration.ofSeconds(10)), STR."Closing hung in round \{round}.");
+            for (final CompletableFuture<RentalAgreement> future : accepted) {
+                assertEquals(3, future.get().getRentalDays());
+            }
+        }
+    }
+
+    private static Checkout ladderCheckout() {
+        return new Checkout(Tools.LADW.getTool(), 3, 10, LocalDate.of(2020, Month.JULY, 2));
+    }
+}
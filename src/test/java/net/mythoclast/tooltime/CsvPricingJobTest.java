@@ -0,0 +1,96 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.batch.BatchPricer;
+import net.mythoclast.tooltime.csv.CsvPricingJob;
+import net.mythoclast.tooltime.csv.PricedCsvWriter;
+import net.mythoclast.tooltime.model.ToolRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class CsvPricingJobTest {
+
+    /**
+     * Good lines are priced in input order across chunk boundaries, and bad lines are rejected with their line number
+     * without stopping the job.
+     */
+    @Test
+    public void testPricesAndRejects() throws IOException {
+        final Path dir = Files.createTempDirectory("csv");
+        final Path input = dir.resolve("checkouts.csv");
+        final Path output = dir.resolve("priced.csv");
+        final Path rejects = dir.resolve("rejects.csv");
+        try {
+            Files.writeString(input, String.join("\n",
+                "toolCode,rentalDays,discount,checkoutDate",
+                "LADW,3,10,2020-07-02",
+                "",
+                " CHNS , 5 , 25 , 2015-07-02\r",
+                "JAKR,5,101,2015-09-03",
+                "NOPE,1,0,2015-09-03",
+                "JAKD,six,0,2015-09-03",
+                "JAKR,4,50,2020-07-02"
+            ));
+            final CsvPricingJob.Summary summary = new CsvPricingJob(
+                ToolRegistry.defaultRegistry(),
+                new BatchPricer(BatchPricer.Mode.THROUGHPUT),
+                2
+            ).run(input, output, rejects);
+            assertEquals(new CsvPricingJob.Summary(3, 3), summary);
+
+            final List<String> priced = Files.readAllLines(output);
+            assertEquals(PricedCsvWriter.HEADER, priced.get(0));
+            assertEquals("2,LADW,Ladder,Werner,3,2020-07-02,2020-07-04,149,2,298,10,29,269", priced.get(1));
+            assertEquals("4,CHNS,Chainsaw,Stihl,5,2015-07-02,2015-07-06,149,3,447,25,111,336", priced.get(2));
+            assertEquals("8,JAKR,Jackhammer,Rigid,4,2020-07-02,2020-07-05,299,1,299,50,149,150", priced.get(3));
+            assertEquals(4, priced.size());
+
+            final List<String> rejected = Files.readAllLines(rejects);
+            assertEquals("line,reason", rejected.get(0));
+            assertEquals(4, rejected.size());
+            assertEquals("5,", rejected.get(1).substring(0, 2));
+            assertEquals("6,", rejected.get(2).substring(0, 2));
+            assertEquals("7,", rejected.get(3).substring(0, 2));
+        } finally {
+            for (final Path path : List.of(input, output, rejects, dir)) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * A malformed first checkout is rejected like any other line rather than taken for a header.
+     */
+    @Test
+    public void testMalformedFirstLineRejected() throws IOException {
+        final Path dir = Files.createTempDirectory("csv");
+        final Path input = dir.resolve("checkouts.csv");
+        final Path output = dir.resolve("priced.csv");
+        final Path rejects = dir.resolve("rejects.csv");
+        try {
+            Files.writeString(input, String.join("\n",
+                "LADW,three,10,2020-07-02",
+                "LADW,3,10,2020-07-02"
+            ));
+            final CsvPricingJob.Summary summary = new CsvPricingJob(
+                ToolRegistry.defaultRegistry(),
+                new BatchPricer(BatchPricer.Mode.THROUGHPUT),
+                2
+            ).run(input, output, rejects);
+            assertEquals(new CsvPricingJob.Summary(1, 1), summary);
+
+            final List<String> rejected = Files.readAllLines(rejects);
+            assertEquals(2, rejected.size());
+            assertEquals("1,", rejected.get(1).substring(0, 2));
+        } finally {
+            for (final Path path : List.of(input, output, rejects, dir)) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.Tool;
+import net.mythoclast.tooltime.model.ToolType;
+import net.mythoclast.tooltime.reservation.AvailabilityEngine;
+import net.mythoclast.tooltime.reservation.FleetIndex;
+import net.mythoclast.tooltime.reservation.Reservation;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.lang.StringTemplate.STR;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class FleetIndexTest {
+
+    /**
+     * Searches over a fleet of 150,000 jackhammers agree with asking the engine about each unit, as bookings are
+     * made and cancelled.
+     */
+    @Test
+    public void testMatchesEngine() {
+        final AvailabilityEngine engine = new AvailabilityEngine();
+        final FleetIndex index = FleetIndex.attach(engine);
+        final List<Tool> fleet = new ArrayList<>();
+        for (int i = 0; i < 150_000; i++) {
+            final Tool tool = new Tool(STR."J\{i}", ToolType.JACKHAMMER, i % 3 == 0 ? "DeWalt" : "Ridgid");
+            fleet.add(tool);
+            assertTrue(index.register(tool));
+        }
+        assertFalse(index.register(fleet.getFirst()));
+
+        final LocalDate july = LocalDate.of(2015, Month.JULY, 1);
+        final Random random = new Random(25);
+        final List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 60_000; i++) {
+            engine.tryReserve(new Checkout(
+                fleet.get(random.nextInt(fleet.size())), 1 + random.nextInt(10), 0, july.plusDays(random.nextInt(30))
+            )).ifPresent(reservations::add);
+        }
+        for (int i = 0; i < reservations.size(); i += 4) {
+            assertTrue(engine.release(reservations.get(i)));
+        }
+
+        final LocalDate from = july.plusDays(2);
+        final LocalDate to = july.plusDays(9);
+        final List<Tool> expected = fleet.stream()
+            .filter(tool -> tool.brand().equals("DeWalt") && engine.isAvailable(tool, from, to))
+            .toList();
+        assertEquals(expected, index.available(ToolType.JACKHAMMER, "DeWalt", from, to));
+        assertEquals(expected.size(), index.countAvailable(ToolType.JACKHAMMER, "DeWalt", from, to));
+        assertEquals(
+            fleet.stream().filter(tool -> engine.isAvailable(tool, from, to)).count(),
+            index.available(ToolType.JACKHAMMER, from, to).size()
+        );
+        assertEquals(0, index.countAvailable(ToolType.LADDER, "DeWalt", from, to));
+    }
+
+    /**
+     * A unit joining the fleet brings the bookings it already has with it.
+     */
+    @Test
+    public void testRegisterAfterBooking() {
+        final AvailabilityEngine engine = new AvailabilityEngine();
+        final FleetIndex index = FleetIndex.attach(engine);
+        final Tool tool = new Tool("CHNX", ToolType.CHAINSAW, "Stihl");
+        final LocalDate date = LocalDate.of(2015, Month.JULY, 2);
+        final Reservation reservation = engine.tryReserve(new Checkout(tool, 3, 0, date)).orElseThrow();
+        index.register(tool);
+        assertEquals(0, index.countAvailable(ToolType.CHAINSAW, "Stihl", date.plusDays(2), date.plusDays(5)));
+        assertEquals(List.of(tool), index.available(ToolType.CHAINSAW, "Stihl", date.plusDays(3), date.plusDays(5)));
+        engine.release(reservation);
+        assertEquals(1, index.countAvailable(ToolType.CHAINSAW, "Stihl", date, date));
+    }
+
+    /**
+     * Threads racing to book and cancel overlapping spans of the same few units leave the index agreeing with the
+     * engine, however the notifications interleave.
+     */
+    @Test
+    public void testConcurrentBookingsSettle() throws InterruptedException {
+        final AvailabilityEngine engine = new AvailabilityEngine();
+        final FleetIndex index = FleetIndex.attach(engine);
+        final List<Tool> fleet = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final Tool tool = new Tool(STR."L\{i}", ToolType.LADDER, "Werner");
+            fleet.add(tool);
+            index.register(tool);
+        }
+        final LocalDate july = LocalDate.of(2015, Month.JULY, 1);
+        final Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int seed = t;
+            threads[t] = Thread.ofPlatform().start(() -> {
+                final Random random = new Random(seed);
+                for (int i = 0; i < 20_000; i++) {
+                    final Reservation reservation = new Reservation(
+                        fleet.get(random.nextInt(fleet.size())), july.plusDays(random.nextInt(5)), july.plusDays(5)
+                    );
+                    if (engine.tryReserve(reservation).isPresent() && random.nextInt(4) != 0) {
+                        engine.release(reservation);
+                    }
+                }
+            });
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        for (int day = 0; day < 6; day++) {
+            final LocalDate date = july.plusDays(day);
+            assertEquals(
+                fleet.stream().filter(tool -> engine.isAvailable(tool, date, date)).toList(),
+                index.available(ToolType.LADDER, "Werner", date, date)
+            );
+        }
+    }
+}
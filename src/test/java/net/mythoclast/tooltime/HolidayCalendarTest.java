@@ -0,0 +1,72 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.model.Holiday;
+import net.mythoclast.tooltime.model.HolidayCalendar;
+import net.mythoclast.tooltime.model.HolidayRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class HolidayCalendarTest {
+
+    /**
+     * Independence Day shifts off weekends, Labor Day is the first Monday of September.
+     * <br>
+     * 2015: July 4th is a Saturday, observed Friday July 3rd. Labor Day is September 7th.
+     * 2021: July 4th is a Sunday, observed Monday July 5th. Labor Day is September 6th.
+     */
+    @Test
+    public void testStandardHolidays() {
+        assertEquals(LocalDate.of(2015, Month.JULY, 3), Holiday.INDEPENDENCE_DAY.forYear(2015));
+        assertEquals(LocalDate.of(2021, Month.JULY, 5), Holiday.INDEPENDENCE_DAY.forYear(2021));
+        assertEquals(LocalDate.of(2015, Month.SEPTEMBER, 7), Holiday.LABOR_DAY.forYear(2015));
+        assertEquals(LocalDate.of(2021, Month.SEPTEMBER, 6), Holiday.LABOR_DAY.forYear(2021));
+
+        final HolidayCalendar calendar = HolidayCalendar.standard();
+        assertTrue(calendar.isObserved(LocalDate.of(2015, Month.JULY, 3)));
+        assertFalse(calendar.isObserved(LocalDate.of(2015, Month.JULY, 4)));
+        assertEquals(4, calendar.countBetween(LocalDate.of(2015, Month.JULY, 3), LocalDate.of(2016, Month.SEPTEMBER, 5)));
+        assertEquals(3, calendar.countBetween(LocalDate.of(2015, Month.JULY, 4), LocalDate.of(2016, Month.SEPTEMBER, 5)));
+    }
+
+    /**
+     * January 1st 2022 is a Saturday, so it is observed on Friday December 31st 2021, in the previous calendar year.
+     */
+    @Test
+    public void testObservedDateSpillingIntoPreviousYear() {
+        final HolidayCalendar calendar = new HolidayCalendar(List.of(
+            new HolidayRule.FixedDate(Month.JANUARY, 1),
+            new HolidayRule.NthWeekday(Month.MAY, DayOfWeek.MONDAY, -1)
+        ));
+        assertTrue(calendar.isObserved(LocalDate.of(2021, Month.DECEMBER, 31)));
+        assertFalse(calendar.isObserved(LocalDate.of(2022, Month.JANUARY, 1)));
+        assertTrue(calendar.isObserved(LocalDate.of(2022, Month.MAY, 30)));
+        assertEquals(1, calendar.countBetween(LocalDate.of(2021, Month.DECEMBER, 1), LocalDate.of(2022, Month.JANUARY, 31)));
+    }
+
+    /**
+     * A calendar observing every day of the year counts every weekday, more than fit in one byte.
+     */
+    @Test
+    public void testCountsPastOneByte() {
+        final List<HolidayRule> everyDay = new ArrayList<>();
+        for (final Month month : Month.values()) {
+            for (int day = 1; day <= month.maxLength(); day++) {
+                everyDay.add(new HolidayRule.FixedDate(month, day));
+            }
+        }
+        final HolidayCalendar calendar = new HolidayCalendar(everyDay);
+        assertEquals(261, calendar.countBetween(LocalDate.of(2015, Month.JANUARY, 1), LocalDate.of(2015, Month.DECEMBER, 31)));
+        assertEquals(52, calendar.countBetween(
+            LocalDate.of(2015, Month.JANUARY, 1), LocalDate.of(2015, Month.DECEMBER, 31), 0b1
+        ));
+    }
+}
@@ -0,0 +1,47 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.model.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class MoneyTest {
+
+    /**
+     * Integer percentages agree with the BigDecimal math they replaced for every amount up to $100 and every percent,
+     * and stay exact at amounts where multiplying first would overflow.
+     */
+    @Test
+    public void testPercentOf() {
+        for (int cents = 0; cents <= 10_000; cents++) {
+            for (int percent = 0; percent <= 100; percent++) {
+                final int legacy = BigDecimal.valueOf(cents).multiply(
+                    BigDecimal.valueOf(((double) percent) / 100.0)
+                ).round(new MathContext(34, RoundingMode.HALF_UP)).intValue();
+                assertEquals(legacy, Money.percentOf(cents, percent));
+            }
+        }
+        assertEquals(Long.MAX_VALUE, Money.percentOf(Long.MAX_VALUE, 100));
+        assertEquals(
+            BigDecimal.valueOf(Long.MAX_VALUE).multiply(BigDecimal.valueOf(37)).divide(BigDecimal.valueOf(100),
+                RoundingMode.DOWN).longValueExact(),
+            Money.percentOf(Long.MAX_VALUE, 37)
+        );
+    }
+
+    /**
+     * Totals too large for a long are refused rather than wrapping around.
+     */
+    @Test
+    public void testOverflowIsRefused() {
+        assertEquals(3_000_000_000L, Money.times(300, 10_000_000));
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> Money.plus(Long.MAX_VALUE, 1));
+        assertEquals("$1,234.56", Money.format(123_456));
+    }
+}
@@ -0,0 +1,109 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.metrics.LatencyHistogram;
+import net.mythoclast.tooltime.metrics.LatencySnapshot;
+import net.mythoclast.tooltime.metrics.PricingMetrics;
+import net.mythoclast.tooltime.metrics.PricingStage;
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.Tools;
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Month;
+
+import static java.lang.StringTemplate.STR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class PricingMetricsTest {
+
+    /**
+     * Percentiles land within one eighth above the true value, and the count, total and max are exact.
+     */
+    @Test
+    public void testHistogramPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i * 100L);
+        }
+        final LatencySnapshot snapshot = histogram.snapshot();
+        assertEquals(10_000, snapshot.count());
+        assertEquals(100L * 10_000 * 10_001 / 2, snapshot.totalNanos());
+        assertEquals(1_000_000, snapshot.maxNanos());
+        assertWithinEighth(500_000, snapshot.p50Nanos());
+        assertWithinEighth(990_000, snapshot.p99Nanos());
+        assertWithinEighth(999_000, snapshot.p999Nanos());
+
+        histogram.reset();
+        assertEquals(new LatencySnapshot(0, 0, 0, 0, 0, 0), histogram.snapshot());
+    }
+
+    /**
+     * Pricing and rendering are timed per stage while metrics are on, and not at all while they are off.
+     */
+    @Test
+    public void testStagesTimedOnlyWhenEnabled() {
+        final boolean wasEnabled = PricingMetrics.isEnabled();
+        try {
+            PricingMetrics.setEnabled(false);
+            PricingMetrics.reset();
+            final Checkout checkout = new Checkout(Tools.CHNS.getTool(), 5, 25, LocalDate.of(2015, Month.JULY, 2));
+            new RentalAgreement(checkout).getReport();
+            assertEquals(0, PricingMetrics.snapshot(PricingStage.CHARGEABLE_DAYS).count());
+
+            PricingMetrics.setEnabled(true);
+            for (int i = 0; i < 3; i++) {
+                new RentalAgreement(checkout).getReport();
+            }
+            for (final PricingStage stage : PricingStage.values()) {
+                assertEquals(3, PricingMetrics.snapshot(stage).count());
+            }
+        } finally {
+            PricingMetrics.setEnabled(wasEnabled);
+            PricingMetrics.reset();
+        }
+    }
+
+    /**
+     * A recording enabling the pricing events gets them with metrics off, and the histograms stay empty.
+     */
+    @Test
+    public void testEventsRecordedWhileMetricsOff() throws IOException {
+        final boolean wasEnabled = PricingMetrics.isEnabled();
+        final Path dump = Files.createTempFile("pricing", ".jfr");
+        try {
+            PricingMetrics.setEnabled(false);
+            PricingMetrics.reset();
+            final Checkout checkout = new Checkout(Tools.CHNS.getTool(), 5, 25, LocalDate.of(2015, Month.JULY, 2));
+            try (final Recording recording = new Recording()) {
+                recording.enable("net.mythoclast.tooltime.Pricing");
+                recording.start();
+                new RentalAgreement(checkout).getReport();
+                recording.stop();
+                recording.dump(dump);
+            }
+            final long events = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals("net.mythoclast.tooltime.Pricing"))
+                .count();
+            assertEquals(PricingStage.values().length, events);
+            for (final PricingStage stage : PricingStage.values()) {
+                assertEquals(0, PricingMetrics.snapshot(stage).count());
+            }
+        } finally {
+            PricingMetrics.setEnabled(wasEnabled);
+            PricingMetrics.reset();
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    private static void assertWithinEighth(final long expected, final long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 8, STR."\{actual} is not near \{expected}");
+    }
+}
@@ -0,0 +1,130 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.Promotion;
+import net.mythoclast.tooltime.model.Promotions;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.ToolType;
+import net.mythoclast.tooltime.model.Tools;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static java.lang.StringTemplate.STR;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class PromotionsTest {
+
+    private static final String PROMOTIONS = """
+        WEEKDAY_LADDERS.percent=10
+        WEEKDAY_LADDERS.toolTypes=LADDER
+        WEEKDAY_LADDERS.checkoutDays=WEEKDAYS
+        LONG_RENTAL.percent=5
+        LONG_RENTAL.minDays=7
+        SUMMER_SAWS.percent=15
+        SUMMER_SAWS.toolTypes=CHAINSAW
+        SUMMER_SAWS.from=2015-06-01
+        SUMMER_SAWS.until=2015-08-31
+        """;
+
+    /**
+     * Only the promotions whose every condition holds stack on the entered discount, capped at 100%.
+     */
+    @Test
+    public void testStacking() throws IOException {
+        final Promotions promotions = Promotions.parse(new StringReader(PROMOTIONS));
+        // Thursday, so weekday-only promotions apply.
+        final LocalDate thursday = LocalDate.of(2015, Month.JULY, 2);
+
+        final Checkout ladder = new Checkout(Tools.LADW.getTool(), 7, 20, thursday);
+        assertEquals(35, promotions.discountFor(ladder));
+        assertEquals(
+            List.of("LONG_RENTAL", "WEEKDAY_LADDERS"),
+            promotions.applicableTo(ladder).stream().map(Promotion::name).toList()
+        );
+        assertEquals(20, promotions.discountFor(new Checkout(Tools.LADW.getTool(), 6, 20, thursday.plusDays(2))));
+
+        final Checkout saw = new Checkout(Tools.CHNS.getTool(), 3, 90, thursday);
+        assertEquals(100, promotions.discountFor(saw));
+        assertEquals(0, promotions.discountFor(new Checkout(Tools.CHNS.getTool(), 3, 0, thursday.plusMonths(2))));
+        assertEquals(0, promotions.discountFor(new Checkout(Tools.JAKR.getTool(), 3, 0, thursday)));
+
+        final RentalAgreement agreement = RentalAgreement.promoted(ladder, promotions);
+        assertEquals(ladder, agreement.checkout());
+        assertEquals(35, agreement.getDiscountPercent());
+        assertEquals(15, agreement.getPromotionPercent());
+        final RentalAgreement entered = new RentalAgreement(new Checkout(Tools.LADW.getTool(), 7, 35, thursday));
+        assertEquals(entered.getDiscountAmount(), agreement.getDiscountAmount());
+        assertEquals(entered.getFinalCharge(), agreement.getFinalCharge());
+        assertEquals(90, RentalAgreement.promoted(saw, promotions).checkout().discount());
+        assertEquals(10, RentalAgreement.promoted(saw, promotions).getPromotionPercent());
+    }
+
+    /**
+     * Shortening a rental below a promotion's minimum length drops the promotion, and the entered discount stays.
+     */
+    @Test
+    public void testAmendReevaluatesPromotions() throws IOException {
+        final Promotions promotions = Promotions.parse(new StringReader(PROMOTIONS));
+        final LocalDate thursday = LocalDate.of(2015, Month.JULY, 2);
+        final RentalAgreement agreement = RentalAgreement.promoted(
+            new Checkout(Tools.JAKR.getTool(), 7, 20, thursday), promotions
+        );
+        assertEquals(5, agreement.getPromotionPercent());
+
+        final RentalAgreement returned = agreement.returnOn(thursday.plusDays(2)).amended();
+        assertEquals(0, returned.getPromotionPercent());
+        assertEquals(20, returned.getDiscountPercent());
+        assertEquals(new RentalAgreement(new Checkout(Tools.JAKR.getTool(), 3, 20, thursday)), returned);
+
+        final RentalAgreement extended = returned.amend(7, promotions).amended();
+        assertEquals(agreement, extended);
+    }
+
+    /**
+     * The compiled chains agree with evaluating every promotion one by one, with hundreds of promotions active.
+     */
+    @Test
+    public void testChainsMatchPromotions() {
+        final List<Promotion> all = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            all.add(new Promotion(
+                STR."P\{i}",
+                1 + i % 3,
+                EnumSet.of(ToolType.values()[i % 3]),
+                1 + i % 127,
+                1 + i % 9,
+                9 + i % 20,
+                i % 2 == 0 ? null : LocalDate.of(2015, Month.JUNE, 1).plusDays(i % 40),
+                i % 5 == 0 ? null : LocalDate.of(2015, Month.JULY, 1).plusDays(i % 30)
+            ));
+        }
+        final Promotions promotions = Promotions.compile(all);
+        for (final Tools tool : Tools.values()) {
+            for (int day = 0; day < 90; day += 4) {
+                for (int rentalDays = 1; rentalDays <= 30; rentalDays += 2) {
+                    final Checkout checkout = new Checkout(
+                        tool.getTool(), rentalDays, 0, LocalDate.of(2015, Month.JUNE, 1).plusDays(day)
+                    );
+                    final int expected = all.stream()
+                        .filter(promotion -> promotion.appliesTo(checkout))
+                        .mapToInt(Promotion::percent)
+                        .sum();
+                    assertEquals(Math.min(100, expected), promotions.discountFor(checkout));
+                }
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> Promotions.parse(new StringReader("SALE.minDays=3")));
+        assertThrows(IllegalArgumentException.class, () -> Promotions.parse(new StringReader("SALE.percnt=3")));
+        assertThrows(IllegalArgumentException.class, () -> new Promotion("SALE", 101));
+    }
+}
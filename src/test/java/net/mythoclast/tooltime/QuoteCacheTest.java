@@ -0,0 +1,82 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.model.ChargeableDays;
+import net.mythoclast.tooltime.model.HolidayCalendar;
+import net.mythoclast.tooltime.model.HolidayRule;
+import net.mythoclast.tooltime.model.QuoteCache;
+import net.mythoclast.tooltime.model.Rate;
+import net.mythoclast.tooltime.model.ToolType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class QuoteCacheTest {
+
+    /**
+     * Cached counts always match counting afresh, even with far more distinct rentals than the cache holds.
+     */
+    @Test
+    public void testMatchesUncounted() {
+        final QuoteCache cache = new QuoteCache(200, QuoteCache.Policy.LRU);
+        final HolidayCalendar calendar = HolidayCalendar.standard();
+        final Random random = new Random(16);
+        for (int i = 0; i < 20_000; i++) {
+            final Rate rate = ToolType.values()[random.nextInt(ToolType.values().length)].getRate();
+            final LocalDate checkoutDate = LocalDate.of(2015, Month.JUNE, 1).plusDays(random.nextInt(120));
+            final int rentalDays = 1 + random.nextInt(10);
+            assertEquals(
+                ChargeableDays.count(rate, calendar, checkoutDate, checkoutDate.plusDays(rentalDays - 1)),
+                cache.chargeableDays(rate, calendar, checkoutDate, rentalDays)
+            );
+        }
+        final QuoteCache.Stats stats = cache.stats();
+        assertEquals(20_000, stats.hits() + stats.misses());
+        assertEquals(stats.misses() - stats.size(), stats.evictions());
+    }
+
+    /**
+     * A full LRU cache keeps what was read most recently, while a full FIFO cache keeps what was written most recently.
+     */
+    @Test
+    public void testEvictionPolicies() {
+        final Rate rate = ToolType.LADDER.getRate();
+        final HolidayCalendar calendar = HolidayCalendar.standard();
+        final LocalDate date = LocalDate.of(2020, Month.JULY, 2);
+        for (final QuoteCache.Policy policy : QuoteCache.Policy.values()) {
+            final QuoteCache cache = new QuoteCache(2, policy);
+            cache.chargeableDays(rate, calendar, date, 1);
+            cache.chargeableDays(rate, calendar, date, 2);
+            cache.chargeableDays(rate, calendar, date, 1);
+            cache.chargeableDays(rate, calendar, date, 3);
+            final long hitsBefore = cache.stats().hits();
+            cache.chargeableDays(rate, calendar, date, 1);
+            assertEquals(policy == QuoteCache.Policy.LRU ? 1 : 0, cache.stats().hits() - hitsBefore);
+            assertEquals(policy == QuoteCache.Policy.LRU ? 1 : 2, cache.stats().evictions());
+        }
+    }
+
+    /**
+     * Counts made under one holiday calendar are never served for another, and both stay cached side by side.
+     */
+    @Test
+    public void testCalendarsKeptApart() {
+        final QuoteCache cache = new QuoteCache(64, QuoteCache.Policy.FIFO);
+        final Rate rate = ToolType.JACKHAMMER.getRate();
+        final LocalDate date = LocalDate.of(2015, Month.JULY, 2);
+        final HolidayCalendar none = new HolidayCalendar(List.<HolidayRule>of());
+        assertEquals(1, cache.chargeableDays(rate, HolidayCalendar.standard(), date, 3));
+        assertEquals(2, cache.chargeableDays(rate, none, date, 3));
+        assertEquals(1, cache.chargeableDays(rate, HolidayCalendar.standard(), date, 3));
+        assertEquals(2, cache.chargeableDays(rate, none, date, 3));
+        assertEquals(2, cache.stats().hits());
+        assertEquals(2, cache.stats().size());
+
+        cache.invalidate();
+        assertEquals(new QuoteCache.Stats(2, 2, 0, 1, 0), cache.stats());
+    }
+}
@@ -0,0 +1,99 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.model.ChargeableDays;
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.HolidayCalendar;
+import net.mythoclast.tooltime.model.PriceGrid;
+import net.mythoclast.tooltime.model.QuoteMatrix;
+import net.mythoclast.tooltime.model.RateTable;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.ToolType;
+import net.mythoclast.tooltime.model.Tools;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.Month;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class QuoteMatrixTest {
+
+    /**
+     * Every rental of up to two weeks starting in 2015 counts the same chargeable days from the matrix as it does
+     * by counting directly.
+     */
+    @Test
+    public void testMatchesChargeableDays() {
+        final LocalDate firstDay = LocalDate.of(2015, Month.JANUARY, 1);
+        final QuoteMatrix matrix = new QuoteMatrix(firstDay, 365 + 14);
+        for (final ToolType type : ToolType.values()) {
+            for (int start = 0; start < 365; start++) {
+                final LocalDate from = firstDay.plusDays(start);
+                for (int days = 1; days <= 14; days++) {
+                    assertEquals(
+                        ChargeableDays.count(type, from, from.plusDays(days - 1)),
+                        matrix.chargeableDays(type, from, days)
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Grid cells carry the same final charge as pricing each agreement, and the cheapest three days in July 2015 for a
+     * jackhammer start on the observed Independence Day, running over the weekend.
+     */
+    @Test
+    public void testGrid() {
+        final LocalDate firstOfJuly = LocalDate.of(2015, Month.JULY, 1);
+        final QuoteMatrix matrix = new QuoteMatrix(firstOfJuly, 31 + 6);
+        final PriceGrid grid = matrix.grid(ToolType.JACKHAMMER, firstOfJuly, 31, 1, 7, 10);
+        for (int start = 0; start < 31; start++) {
+            for (int days = 1; days <= 7; days++) {
+                final LocalDate from = firstOfJuly.plusDays(start);
+                assertEquals(
+                    new RentalAgreement(new Checkout(Tools.JAKR.getTool(), days, 10, from)).getFinalCharge(),
+                    grid.getFinalCents(from, days)
+                );
+            }
+        }
+        assertEquals(LocalDate.of(2015, Month.JULY, 3), grid.getCheapestStart(3));
+        assertThrows(IllegalArgumentException.class, () -> matrix.chargeableDays(ToolType.LADDER, firstOfJuly, 38));
+    }
+
+    /**
+     * A window spanning a dated rate change prices each rental with the version in effect on its first day, as
+     * pricing the agreement does.
+     */
+    @Test
+    public void testGridAcrossRateChange() throws IOException {
+        final RateTable table = RateTable.parse(new StringReader("""
+            JACKHAMMER.2015-07-15.cents=399
+            JACKHAMMER.2015-07-15.chargeDays=WEEKDAYS,WEEKENDS
+            JACKHAMMER.2015-07-22.chargeHolidays=true
+            """));
+        final LocalDate firstOfJuly = LocalDate.of(2015, Month.JULY, 1);
+        final QuoteMatrix matrix = new QuoteMatrix(table, HolidayCalendar.standard(), firstOfJuly, 31 + 6);
+        assertEquals(299, matrix.getRate(ToolType.JACKHAMMER).cents());
+        assertEquals(399, matrix.getRate(ToolType.JACKHAMMER, LocalDate.of(2015, Month.JULY, 15)).cents());
+        final PriceGrid grid = matrix.grid(ToolType.JACKHAMMER, firstOfJuly, 31, 1, 7, 10);
+        final RateTable previous = RateTable.install(table);
+        try {
+            for (int start = 0; start < 31; start++) {
+                for (int days = 1; days <= 7; days++) {
+                    final LocalDate from = firstOfJuly.plusDays(start);
+                    final RentalAgreement agreement = new RentalAgreement(
+                        new Checkout(Tools.JAKR.getTool(), days, 10, from)
+                    );
+                    assertEquals(agreement.getChargeableDays(), matrix.chargeableDays(ToolType.JACKHAMMER, from, days));
+                    assertEquals(agreement.getFinalCharge(), grid.getFinalCents(from, days));
+                }
+            }
+        } finally {
+            RateTable.install(previous);
+        }
+    }
+}
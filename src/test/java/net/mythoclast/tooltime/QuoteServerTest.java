@@ -0,0 +1,94 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.model.ToolRegistry;
+import net.mythoclast.tooltime.service.QuoteServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static java.lang.StringTemplate.STR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class QuoteServerTest {
+
+    /**
+     * A single quote is answered with the agreement breakdown, and a bad one with status 400 and the reason.
+     */
+    @Test
+    public void testSingleQuote() throws IOException, InterruptedException {
+        try (
+            final QuoteServer server = QuoteServer.start(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), ToolRegistry.defaultRegistry()
+            );
+            final HttpClient client = HttpClient.newHttpClient()
+        ) {
+            final String base = STR."http://localhost:\{server.address().getPort()}";
+            final HttpResponse<String> quoted = client.send(
+                HttpRequest.newBuilder(URI.create(STR."\{base}/quote?tool=LADW&days=3&discount=10&date=2020-07-02")).build(),
+                HttpResponse.BodyHandlers.ofString()
+            );
+            assertEquals(200, quoted.statusCode());
+            assertEquals(
+                "{\"toolCode\":\"LADW\",\"toolType\":\"Ladder\",\"toolBrand\":\"Werner\",\"rentalDays\":3,"
+                    + "\"checkoutDate\":\"2020-07-02\",\"dueDate\":\"2020-07-04\",\"dailyRentalCents\":149,"
+                    + "\"chargeableDays\":2,\"preDiscountCents\":298,\"discountPercent\":10,\"promotionPercent\":0,"
+                    + "\"discountCents\":29,\"finalCents\":269}",
+                quoted.body()
+            );
+
+            final HttpResponse<String> refused = client.send(
+                HttpRequest.newBuilder(URI.create(STR."\{base}/quote?tool=JAKR&days=5&discount=101&date=2015-09-03")).build(),
+                HttpResponse.BodyHandlers.ofString()
+            );
+            assertEquals(400, refused.statusCode());
+            assertEquals("{\"error\":\"A discount greater than 100% is not allowed.\"}", refused.body());
+
+            final HttpResponse<String> nowhere = client.send(
+                HttpRequest.newBuilder(URI.create(STR."\{base}/quote?tool=JAKR&days=5&date=2015-09-03&region=NOWHERE")).build(),
+                HttpResponse.BodyHandlers.ofString()
+            );
+            assertEquals(400, nowhere.statusCode());
+            assertEquals("{\"error\":\"Unknown region `NOWHERE`.\"}", nowhere.body());
+
+            final HttpResponse<String> endless = client.send(
+                HttpRequest.newBuilder(URI.create(STR."\{base}/quote?tool=JAKR&days=1000&date=%2B999999999-12-01")).build(),
+                HttpResponse.BodyHandlers.ofString()
+            );
+            assertEquals(400, endless.statusCode());
+        }
+    }
+
+    /**
+     * A batch is answered line by line in input order, with a quote or an error for each.
+     */
+    @Test
+    public void testBatchQuote() throws IOException, InterruptedException {
+        try (
+            final QuoteServer server = QuoteServer.start(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), ToolRegistry.defaultRegistry()
+            );
+            final HttpClient client = HttpClient.newHttpClient()
+        ) {
+            final HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(STR."http://localhost:\{server.address().getPort()}/quotes"))
+                    .POST(HttpRequest.BodyPublishers.ofString("NOPE,1,0,2015-09-03\nJAKR,4,50,2020-07-02\n"))
+                    .build(),
+                HttpResponse.BodyHandlers.ofString()
+            );
+            assertEquals(200, response.statusCode());
+            assertEquals(
+                "[{\"line\":1,\"error\":\"Unknown tool code `NOPE`.\"},{\"line\":2,\"quote\":{\"toolCode\":\"JAKR\","
+                    + "\"toolType\":\"Jackhammer\",\"toolBrand\":\"Rigid\",\"rentalDays\":4,\"checkoutDate\":\"2020-07-02\","
+                    + "\"dueDate\":\"2020-07-05\",\"dailyRentalCents\":299,\"chargeableDays\":1,\"preDiscountCents\":299,"
+                    + "\"discountPercent\":50,\"promotionPercent\":0,\"discountCents\":149,\"finalCents\":150}}]",
+                response.body()
+            );
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.Rate;
+import net.mythoclast.tooltime.model.RateTable;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.ToolType;
+import net.mythoclast.tooltime.model.Tools;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.Month;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class RateTableTest {
+
+    /**
+     * Properties override only what they name. Everything else keeps its built-in default.
+     */
+    @Test
+    public void testParseOverridesDefaults() throws IOException {
+        final RateTable table = RateTable.parse(new StringReader("""
+            LADDER.cents=199
+            JACKHAMMER.chargeDays=WEEKDAYS,SATURDAY
+            JACKHAMMER.chargeHolidays=true
+            """));
+        final Rate ladder = table.rateFor(ToolType.LADDER);
+        assertEquals(199, ladder.cents());
+        assertEquals("Ladder", ladder.description());
+        assertEquals(Rate.WEEKDAYS | Rate.WEEKENDS, ladder.chargeDayMask());
+
+        final Rate jackhammer = table.rateFor(ToolType.JACKHAMMER);
+        assertEquals(299, jackhammer.cents());
+        assertTrue(jackhammer.chargeForHolidays());
+        assertEquals(0b0111111, jackhammer.chargeDayMask());
+
+        assertEquals(RateTable.defaults().rateFor(ToolType.CHAINSAW), table.rateFor(ToolType.CHAINSAW));
+        assertThrows(IllegalArgumentException.class, () -> RateTable.parse(new StringReader("DRILL.cents=5")));
+        assertThrows(IllegalArgumentException.class, () -> RateTable.parse(new StringReader("LADDER.chargeDays=FUNDAY")));
+    }
+
+    /**
+     * Agreements priced after a reload use the new rates. Agreements priced before it keep theirs.
+     */
+    @Test
+    public void testInstallSwapsRatesForNewQuotesOnly() throws IOException {
+        final Checkout checkout = new Checkout(Tools.LADW.getTool(), 3, 10, LocalDate.of(2020, Month.JULY, 2));
+        final RentalAgreement before = new RentalAgreement(checkout);
+        final RateTable previous = RateTable.install(RateTable.parse(new StringReader("LADDER.cents=199")));
+        try {
+            final RentalAgreement after = new RentalAgreement(checkout);
+            assertEquals(149, before.getDailyRentalCents());
+            assertEquals(298, before.getPreDiscountCharge());
+            assertEquals(199, after.getDailyRentalCents());
+            assertEquals(398, after.getPreDiscountCharge());
+            assertFalse(before.equals(after));
+        } finally {
+            RateTable.install(previous);
+        }
+    }
+
+    /**
+     * Checkouts are priced at the rate version in effect on their checkout date, each version keeping what it leaves
+     * out from the one before.
+     */
+    @Test
+    public void testDatedVersions() throws IOException {
+        final RateTable table = RateTable.parse(new StringReader("""
+            LADDER.2019-07-01.cents=199
+            LADDER.2019-07-01.chargeHolidays=true
+            LADDER.2019-07-01.description=Step Ladder
+            LADDER.2016-01-01.cents=169
+            """));
+        assertEquals(149, table.rateFor(ToolType.LADDER, LocalDate.of(2015, Month.DECEMBER, 31)).cents());
+        assertEquals(169, table.rateFor(ToolType.LADDER, LocalDate.of(2016, Month.JANUARY, 1)).cents());
+        assertFalse(table.rateFor(ToolType.LADDER, LocalDate.of(2019, Month.JUNE, 30)).chargeForHolidays());
+        final Rate latest = table.rateFor(ToolType.LADDER, LocalDate.of(2019, Month.JULY, 1));
+        assertEquals(199, latest.cents());
+        assertTrue(latest.chargeForHolidays());
+        assertEquals(Rate.WEEKDAYS | Rate.WEEKENDS, latest.chargeDayMask());
+        assertEquals(2, table.history(ToolType.LADDER).size());
+        assertEquals(latest, table.history(ToolType.LADDER).get(LocalDate.of(2019, Month.JULY, 1)));
+        assertEquals(0, table.history(ToolType.CHAINSAW).size());
+
+        final RateTable previous = RateTable.install(table);
+        try {
+            final RentalAgreement historic = new RentalAgreement(
+                new Checkout(Tools.LADW.getTool(), 3, 10, LocalDate.of(2015, Month.JULY, 2))
+            );
+            final RentalAgreement recent = new RentalAgreement(
+                new Checkout(Tools.LADW.getTool(), 3, 10, LocalDate.of(2020, Month.JULY, 2))
+            );
+            assertEquals(149, historic.getDailyRentalCents());
+            assertEquals(199, recent.getDailyRentalCents());
+            assertEquals(3, recent.getChargeableDays());
+            assertEquals("Ladder", historic.getToolDescription());
+            assertEquals("Step Ladder", recent.getToolDescription());
+            assertTrue(historic.getReport().contains("Tool type: Ladder\n"));
+            assertTrue(recent.getReport().contains("Tool type: Step Ladder\n"));
+        } finally {
+            RateTable.install(previous);
+        }
+        assertThrows(IllegalArgumentException.class, () -> RateTable.parse(new StringReader("LADDER.2019-13-01.cents=5")));
+        assertThrows(IllegalArgumentException.class, () -> RateTable.parse(new StringReader("LADDER.cent=5")));
+        assertThrows(IllegalArgumentException.class, () -> RateTable.parse(new StringReader("LADDER.2019-07-01.cent=5")));
+    }
+}
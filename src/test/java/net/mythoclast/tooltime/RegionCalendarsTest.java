@@ -0,0 +1,66 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.HolidayCalendar;
+import net.mythoclast.tooltime.model.RegionCalendars;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.Tools;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class RegionCalendarsTest {
+
+    /**
+     * Regions read from properties observe only their own rules, including last-weekday rules.
+     */
+    @Test
+    public void testParse() throws IOException {
+        final Map<String, HolidayCalendar> calendars = RegionCalendars.parse(new StringReader(String.join("\n",
+            "CA-ON = july 1; SEPTEMBER MONDAY 1",
+            "US-X = JULY 4; MAY MONDAY LAST"
+        )));
+        final HolidayCalendar ontario = calendars.get("CA-ON");
+        assertTrue(ontario.isObserved(LocalDate.of(2015, Month.JULY, 1)));
+        assertFalse(ontario.isObserved(LocalDate.of(2015, Month.JULY, 3)));
+        assertTrue(calendars.get("US-X").isObserved(LocalDate.of(2015, Month.MAY, 25)));
+        assertEquals(2, calendars.get("US-X").countBetween(LocalDate.of(2015, Month.MAY, 1), LocalDate.of(2015, Month.JULY, 31)));
+        assertThrows(IllegalArgumentException.class, () -> RegionCalendars.parse(new StringReader("XX = JULY 32")));
+    }
+
+    /**
+     * The same checkout prices differently in regions observing different holidays, and not at all in unknown regions.
+     */
+    @Test
+    public void testPricesByRegion() throws IOException {
+        final RegionCalendars regions = RegionCalendars.defaultRegions();
+        final HolidayCalendar ontario = RegionCalendars.parse(new StringReader("CA-ON = JULY 1; AUGUST MONDAY 1"))
+            .get("CA-ON");
+        assertNull(regions.register("CA-ON", ontario));
+        try {
+            final LocalDate date = LocalDate.of(2015, Month.JUNE, 30);
+            assertEquals(3, new RentalAgreement(new Checkout(Tools.JAKR.getTool(), 3, 0, date)).getChargeableDays());
+            assertEquals(
+                2, new RentalAgreement(new Checkout(Tools.JAKR.getTool(), 3, 0, date, "CA-ON")).getChargeableDays()
+            );
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> new RentalAgreement(new Checkout(Tools.JAKR.getTool(), 4, 0, date, "NOWHERE"))
+            );
+        } finally {
+            regions.unregister("CA-ON");
+        }
+        assertFalse(regions.regions().contains("CA-ON"));
+        assertThrows(IllegalArgumentException.class, () -> regions.unregister(RegionCalendars.DEFAULT_REGION));
+    }
+}
@@ -0,0 +1,90 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.ReportWriter;
+import net.mythoclast.tooltime.model.Tools;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class ReportWriterTest {
+
+    /**
+     * The report for the LADW scenario, exactly as it has always been printed.
+     */
+    @Test
+    public void testLADWReport() {
+        final RentalAgreement agreement = new RentalAgreement(
+            new Checkout(
+                Tools.LADW.getTool(),
+                3,
+                10,
+                LocalDate.of(2020, Month.JULY, 2)
+            )
+        );
+        final String expected = """
+            Tool code: LADW
+            Tool type: Ladder
+            Tool brand: Werner
+            Rental days: 3
+            Check out date: 07/02/20
+            Due date: 07/04/20
+            Daily rental charge: $1.49
+            Charge days: 2
+            Pre-discount charge: $2.98
+            Discount percent: 10%
+            Discount amount: $0.29
+            Final charge: $2.69
+            """;
+        assertEquals(expected, agreement.getReport());
+
+        final ByteBuffer buffer = ReportWriter.write(agreement, ByteBuffer.allocate(512));
+        assertArrayEquals(
+            expected.getBytes(StandardCharsets.UTF_8),
+            Arrays.copyOf(buffer.array(), buffer.position())
+        );
+    }
+
+    /**
+     * Dollar amounts must match NumberFormat's US currency format, grouping separators included.
+     */
+    @Test
+    public void testDollarsMatchNumberFormat() {
+        final NumberFormat currency = NumberFormat.getCurrencyInstance(Locale.US);
+        final long[] samples = { 0, 1, 9, 10, 99, 100, 101, 99_999, 100_000, 123_456_789, Integer.MAX_VALUE };
+        for (final long cents : samples) {
+            assertEquals(
+                currency.format(new BigDecimal(BigInteger.valueOf(cents), 2)),
+                ReportWriter.appendDollars(cents, new StringBuilder()).toString()
+            );
+        }
+    }
+
+    /**
+     * Dates must match the MM/dd/yy pattern used on receipts.
+     */
+    @Test
+    public void testDatesMatchDateTimeFormatter() {
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yy");
+        for (LocalDate date = LocalDate.of(1999, Month.DECEMBER, 25); date.getYear() < 2001; date = date.plusDays(17)) {
+            final RentalAgreement agreement = new RentalAgreement(new Checkout(Tools.JAKD.getTool(), 1, 0, date));
+            assertEquals(
+                "Check out date: " + date.format(formatter),
+                agreement.getReport().lines().filter(line -> line.startsWith("Check out date")).findFirst().get()
+            );
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.analytics.AgreementColumns;
+import net.mythoclast.tooltime.analytics.Dimension;
+import net.mythoclast.tooltime.analytics.Rollup;
+import net.mythoclast.tooltime.journal.AgreementJournal;
+import net.mythoclast.tooltime.model.Checkout;
+import net.mythoclast.tooltime.model.RentalAgreement;
+import net.mythoclast.tooltime.model.ToolRegistry;
+import net.mythoclast.tooltime.model.ToolType;
+import net.mythoclast.tooltime.model.Tools;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class RollupTest {
+
+    /**
+     * Rollups across several slices match totals kept by hand, whether loaded from agreements or from a journal.
+     */
+    @Test
+    public void testRollupByTypeAndMonth() throws IOException {
+        final AgreementColumns.Builder builder = AgreementColumns.builder();
+        final Path path = Files.createTempFile("rollup", ".journal");
+        final long[] jackhammerJuly2015 = new long[2];
+        long totalFinal = 0;
+        try {
+            try (final AgreementJournal journal = AgreementJournal.open(path)) {
+                for (int i = 0; i < 200_000; i++) {
+                    final Tools tools = Tools.values()[i % Tools.values().length];
+                    final LocalDate date = LocalDate.of(2014, Month.JANUARY, 1).plusDays(i % 1000);
+                    final RentalAgreement agreement = new RentalAgreement(
+                        new Checkout(tools.getTool(), 1 + i % 9, i % 40, date)
+                    );
+                    builder.add(agreement);
+                    journal.append(agreement);
+                    totalFinal += agreement.getFinalCharge();
+                    if (tools.getTool().type() == ToolType.JACKHAMMER && YearMonth.from(date).equals(YearMonth.of(2015, 7))) {
+                        jackhammerJuly2015[0]++;
+                        jackhammerJuly2015[1] += agreement.getDiscountAmount();
+                    }
+                }
+            }
+            final AgreementColumns fromJournal = AgreementColumns.fromJournal(path, ToolRegistry.defaultRegistry());
+            for (final AgreementColumns columns : List.of(builder.build(), fromJournal)) {
+                assertEquals(200_000, columns.size());
+                assertEquals(totalFinal, columns.rollup().getRows().getFirst().finalCents());
+
+                final Rollup.Row row = columns.rollup(Dimension.TOOL_TYPE, Dimension.MONTH).getRows().stream()
+                    .filter(r -> r.toolType() == ToolType.JACKHAMMER && r.month().equals(YearMonth.of(2015, 7)))
+                    .findFirst().orElseThrow();
+                assertEquals(jackhammerJuly2015[0], row.agreements());
+                assertEquals(jackhammerJuly2015[1], row.discountCents());
+
+                final List<Rollup.Row> byBrand = columns.rollup(Dimension.BRAND).getRows();
+                assertEquals(
+                    totalFinal,
+                    byBrand.stream().mapToLong(Rollup.Row::finalCents).sum()
+                );
+                assertEquals(null, byBrand.getFirst().toolType());
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package net.mythoclast.tooltime;
+
+import net.mythoclast.tooltime.model.Tool;
+import net.mythoclast.tooltime.model.ToolCodes;
+import net.mythoclast.tooltime.model.ToolRegistry;
+import net.mythoclast.tooltime.model.ToolType;
+import net.mythoclast.tooltime.model.Tools;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ToolRegistryTest {
+
+    /**
+     * The default registry starts out holding the enumerated Tools, and refuses to register their codes again.
+     */
+    @Test
+    public void testDefaultRegistryIsSeededWithTools() {
+        final ToolRegistry registry = ToolRegistry.defaultRegistry();
+        for (final Tools tools : Tools.values()) {
+            assertSame(tools.getTool(), registry.lookup(tools.name()).orElseThrow());
+        }
+        final IllegalArgumentException e = assertThrows(
+            IllegalArgumentException.class,
+            () -> registry.register(new Tool("JAKR", ToolType.JACKHAMMER, "Rigid"))
+        );
+        assertEquals("Tool code `JAKR` is already in use.", e.getMessage());
+    }
+
+    /**
+     * Many threads racing to register the same codes must result in exactly one winner per code.
+     */
+    @Test
+    public void testConcurrentRegistrationHasOneWinnerPerCode() {
+        final ToolRegistry registry = new ToolRegistry();
+        final AtomicInteger winners = new AtomicInteger();
+        IntStream.range(0, 80_000).parallel().forEach(i -> {
+            if (registry.registerIfAbsent(new Tool("T" + (i % 10_000), ToolType.LADDER, "Brand " + i))) {
+                winners.incrementAndGet();
+            }
+        });
+        assertEquals(10_000, winners.get());
+        assertEquals(10_000, registry.size());
+        assertTrue(registry.lookup("T9999").isPresent());
+        assertFalse(registry.lookup("T10000").isPresent());
+    }
+
+    /**
+     * Packable codes are found by their packed key. Codes that don't pack are still registered and found by String.
+     */
+    @Test
+    public void testPackedAndFallbackCodes() {
+        assertEquals("JAKR", ToolCodes.unpack(ToolCodes.pack("JAKR")));
+        assertEquals("0A9Z00000000", ToolCodes.unpack(ToolCodes.pack("0A9Z00000000")));
+        assertEquals(ToolCodes.UNPACKABLE, ToolCodes.pack("jakr"));
+        assertEquals(ToolCodes.UNPACKABLE, ToolCodes.pack("TOOLCODE-0001"));
+
+        final ToolRegistry registry = new ToolRegistry();
+        final Tool packed = registry.register(new Tool("LADW2", ToolType.LADDER, "Werner"));
+        final Tool unpacked = registry.register(new Tool("ladder-werner-2", ToolType.LADDER, "Werner"));
+        assertSame(packed, registry.lookup(ToolCodes.pack("LADW2")));
+        assertSame(packed, registry.lookup("LADW2").orElseThrow());
+        assertSame(unpacked, registry.lookup("ladder-werner-2").orElseThrow());
+        assertFalse(registry.registerIfAbsent(new Tool("ladder-werner-2", ToolType.LADDER, "Werner")));
+        assertEquals(2, registry.size());
+    }
+}